@@ -0,0 +1,121 @@
+package com.tam.taskmanager;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares a JMH JSON result (-rf json) with the stored baseline and exits
+ * with status 1 when a benchmark got slower, or allocates more per
+ * operation, by more than the threshold. A slowdown also has to exceed the
+ * combined error of both runs, so noisy benchmarks do not fail the check.
+ *
+ * Usage: JmhBaselineComparator baseline.json result.json [thresholdPercent]
+ * Run:   ./mvnw -Pjmh test-compile exec:exec@compare-baseline
+ */
+public class JmhBaselineComparator {
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+
+    // gc.alloc.rate.norm jitters by a few bytes; smaller growth is not a regression
+    private static final double ALLOCATION_NOISE_BYTES = 64;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: JmhBaselineComparator <baseline.json> <result.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(new File(args[0])));
+        Map<String, JsonNode> current = index(objectMapper.readTree(new File(args[1])));
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+
+        int regressions = 0;
+        System.out.printf("%-75s %14s %14s %9s %14s %14s %9s%n", "Benchmark", "base score", "score", "delta",
+                "base B/op", "B/op", "delta");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode result = entry.getValue();
+            JsonNode base = baseline.get(entry.getKey());
+            double score = result.path("primaryMetric").path("score").asDouble();
+            double allocation = allocation(result);
+            if (base == null) {
+                System.out.printf("%-75s %14s %14.3f %9s %14s %14.1f %9s%n", entry.getKey(), "-", score, "new", "-",
+                        allocation, "new");
+                continue;
+            }
+            double baseScore = base.path("primaryMetric").path("score").asDouble();
+            double baseAllocation = allocation(base);
+            double scoreDelta = percentChange(baseScore, score);
+            double allocationDelta = percentChange(baseAllocation, allocation);
+            double scoreError = error(base) + error(result);
+            // Lower is better for the average-time and allocation metrics used here
+            boolean regressed = (scoreDelta > threshold && score - baseScore > scoreError)
+                    || (allocationDelta > threshold && allocation - baseAllocation > ALLOCATION_NOISE_BYTES);
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-75s %14.3f %14.3f %+8.1f%% %14.1f %14.1f %+8.1f%%%s%n", entry.getKey(), baseScore,
+                    score, scoreDelta, baseAllocation, allocation, allocationDelta, regressed ? "  REGRESSION" : "");
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.printf("%-75s not in current result%n", missing);
+            }
+        }
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.1f%%%n", regressions, threshold);
+            System.exit(1);
+        }
+        System.out.printf("No regressions above %.1f%%%n", threshold);
+    }
+
+    // Keyed by benchmark name plus parameters, e.g. TaskMappingBenchmark.toDtos{rows=10}
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            String name = result.path("benchmark").asText();
+            StringBuilder key = new StringBuilder(name.substring(name.lastIndexOf('.', name.lastIndexOf('.') - 1) + 1));
+            JsonNode params = result.path("params");
+            if (params.size() > 0) {
+                key.append('{');
+                Iterator<Map.Entry<String, JsonNode>> fields = params.properties().iterator();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> param = fields.next();
+                    key.append(param.getKey()).append('=').append(param.getValue().asText());
+                    if (fields.hasNext()) {
+                        key.append(',');
+                    }
+                }
+                key.append('}');
+            }
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+
+    private static double error(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static double allocation(JsonNode result) {
+        return result.path("secondaryMetrics").path(ALLOCATION_METRIC).path("score").asDouble(Double.NaN);
+    }
+
+    private static double percentChange(double base, double value) {
+        if (Double.isNaN(base) || Double.isNaN(value)) {
+            return 0;
+        }
+        if (base == 0) {
+            return value == 0 ? 0 : Double.POSITIVE_INFINITY;
+        }
+        return (value - base) / base * 100;
+    }
+}
@@ -0,0 +1,93 @@
+package com.tam.taskmanager.Specs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.tam.taskmanager.entity.TaskEntity;
+import com.tam.taskmanager.entity.UserEntity;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Cost of building the listing and search specifications and resolving
+ * them into criteria predicates, which happens on every GET /tasks and
+ * GET /tasks/search before any SQL is rendered.
+ *
+ * Run: ./mvnw -Pjmh test-compile exec:exec -Djmh.args=TaskSpecsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskSpecsBenchmark {
+
+    private static final Long USER_ID = 42L;
+
+    private final TaskSpecs taskSpecs = new TaskSpecs();
+
+    private SessionFactory sessionFactory;
+    private Session session;
+    private CriteriaBuilder criteriaBuilder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(TaskEntity.class)
+                .addAnnotatedClass(UserEntity.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL,
+                        "jdbc:h2:mem:task-specs;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+                .buildSessionFactory();
+        session = sessionFactory.openSession();
+        criteriaBuilder = session.getCriteriaBuilder();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Predicate filterByPriorityAndStatus() {
+        return toPredicate(taskSpecs.getTasksByPriorityAndStatusandUserId(USER_ID, "HIGH", "PENDING"));
+    }
+
+    @Benchmark
+    public Predicate keysetSlice() {
+        return toPredicate(taskSpecs.getTasksByPriorityAndStatusandUserId(USER_ID, null, "PENDING")
+                .and(taskSpecs.getTasksBeforeId(1_000_000L)));
+    }
+
+    @Benchmark
+    public Predicate searchByInput() {
+        return toPredicate(taskSpecs.getBySearchinput(USER_ID, "quarterly report"));
+    }
+
+    private Predicate toPredicate(Specification<TaskEntity> specification) {
+        CriteriaQuery<TaskEntity> query = criteriaBuilder.createQuery(TaskEntity.class);
+        Root<TaskEntity> root = query.from(TaskEntity.class);
+        return specification.toPredicate(root, query, criteriaBuilder);
+    }
+}
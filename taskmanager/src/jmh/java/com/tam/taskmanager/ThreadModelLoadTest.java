@@ -0,0 +1,163 @@
+package com.tam.taskmanager;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load generator for comparing the platform and virtual thread
+ * modes: every client sends one request at a time, as fast as responses
+ * come back. A client that gets a 503 waits for its Retry-After before the
+ * next request, like a well-behaved caller would. Start one instance per
+ * mode (e.g. the second one with --server.port=8085
+ * --spring.threads.virtual.enabled=false) and pass both URLs; they are
+ * loaded one after the other with the same settings.
+ *
+ * Usage: ThreadModelLoadTest concurrency durationSeconds url [url...]
+ * Token: LOAD_TOKEN environment variable (bearer token accepted by the service)
+ * Run:   LOAD_TOKEN=... ./mvnw -Pjmh test-compile exec:exec@load-test
+ *            -Dload.args="1000 30 http://localhost:8084/task-management/api/v1/tasks http://localhost:8085/task-management/api/v1/tasks"
+ */
+public class ThreadModelLoadTest {
+
+    private static final int WARMUP_SECONDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: ThreadModelLoadTest <concurrency> <durationSeconds> <url> [url...]");
+            System.exit(2);
+        }
+        int concurrency = Integer.parseInt(args[0]);
+        int durationSeconds = Integer.parseInt(args[1]);
+        String token = System.getenv("LOAD_TOKEN");
+
+        List<String> report = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            run(args[i], token, concurrency, WARMUP_SECONDS);
+            Result result = run(args[i], token, concurrency, durationSeconds);
+            report.add(result.format(args[i]));
+        }
+        System.out.printf("%n%d clients, %ds per target%n", concurrency, durationSeconds);
+        System.out.printf("%-60s %10s %10s %9s %9s %9s %8s %8s%n", "target", "requests", "req/s", "p50 ms",
+                "p99 ms", "max ms", "503", "errors");
+        report.forEach(System.out::println);
+    }
+
+    private static Result run(String url, String token, int concurrency, int seconds) throws InterruptedException {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(60)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = builder.build();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        Client[] clients = new Client[concurrency];
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                Client client = new Client(httpClient, request, deadline);
+                clients[i] = client;
+                executor.submit(client);
+            }
+        }
+        httpClient.close();
+        return Result.of(clients, seconds);
+    }
+
+    private static class Client implements Runnable {
+
+        private final HttpClient httpClient;
+        private final HttpRequest request;
+        private final long deadline;
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private int unavailable;
+        private final Map<String, Integer> errors = new TreeMap<>();
+
+        Client(HttpClient httpClient, HttpRequest request, long deadline) {
+            this.httpClient = httpClient;
+            this.request = request;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < deadline) {
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                    int status = response.statusCode();
+                    if (status == 503) {
+                        unavailable++;
+                        long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                        Thread.sleep(Math.min(TimeUnit.SECONDS.toMillis(retryAfter),
+                                TimeUnit.NANOSECONDS.toMillis(Math.max(0, deadline - System.nanoTime()))));
+                        continue;
+                    }
+                    if (status >= 400) {
+                        errors.merge("HTTP " + status, 1, Integer::sum);
+                        continue;
+                    }
+                } catch (Exception e) {
+                    errors.merge(e.getClass().getSimpleName(), 1, Integer::sum);
+                    continue;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+            }
+        }
+    }
+
+    private record Result(long[] latencies, int unavailable, Map<String, Integer> errors, int seconds) {
+
+        static Result of(Client[] clients, int seconds) {
+            int total = 0;
+            int unavailable = 0;
+            Map<String, Integer> errors = new TreeMap<>();
+            for (Client client : clients) {
+                total += client.count;
+                unavailable += client.unavailable;
+                client.errors.forEach((error, count) -> errors.merge(error, count, Integer::sum));
+            }
+            long[] latencies = new long[total];
+            int offset = 0;
+            for (Client client : clients) {
+                System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+                offset += client.count;
+            }
+            Arrays.sort(latencies);
+            return new Result(latencies, unavailable, errors, seconds);
+        }
+
+        String format(String url) {
+            int errorCount = errors.values().stream().mapToInt(Integer::intValue).sum();
+            return String.format("%-60s %10d %10.1f %9.1f %9.1f %9.1f %8d %8d%s", url, latencies.length,
+                    latencies.length / (double) seconds, percentile(0.50), percentile(0.99), percentile(1.0),
+                    unavailable, errorCount, errors.isEmpty() ? "" : "  " + errors);
+        }
+
+        private double percentile(double quantile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(quantile * latencies.length) - 1);
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.tam.taskmanager.config;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Cost of turning a decoded Keycloak access token into the authentication
+ * used by every request (scope authorities plus realm roles).
+ *
+ * Run: ./mvnw -Pjmh test-compile exec:exec -Djmh.args=JwtAuthConverterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthConverterBenchmark {
+
+    private JwtAuthConverter converter;
+    private Jwt jwt;
+
+    @Setup
+    public void setUp() {
+        converter = new JwtAuthConverter();
+        Instant issuedAt = Instant.now();
+        jwt = Jwt.withTokenValue("benchmark-token")
+                .header("alg", "RS256")
+                .header("kid", "benchmark")
+                .subject("6f1c1a52-3b0e-4d7e-9a55-0d1a9e0b7c21")
+                .issuer("http://localhost:8080/realms/task-maneger-realm")
+                .issuedAt(issuedAt)
+                .expiresAt(issuedAt.plusSeconds(300))
+                .claim("preferred_username", "benchmark")
+                .claim("scope", "openid profile email")
+                .claim("realm_access", Map.of("roles",
+                        List.of("manage_task", "offline_access", "uma_authorization", "default-roles-task-maneger-realm")))
+                .build();
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convert() {
+        return converter.convert(jwt);
+    }
+}
@@ -0,0 +1,112 @@
+package com.tam.taskmanager.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.tam.taskmanager.dto.task.TaskDTO;
+import com.tam.taskmanager.enums.PriorityEnum;
+import com.tam.taskmanager.enums.StatusEnum;
+
+/**
+ * Serialization cost of a task page in each response format of
+ * TaskResponseFormatConfig, plain and gzipped (server.compression). The
+ * payload sizes are printed once per trial, as "payload <format> rows=<n>:
+ * <bytes> bytes, <gzipped> gzipped".
+ *
+ * Run: ./mvnw -Pjmh test-compile exec:exec -Djmh.args=TaskResponseFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskResponseFormatBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    private int rows;
+
+    @Param({ "json", "smile", "cbor", "protobuf" })
+    private String format;
+
+    private List<TaskDTO> taskDTOs;
+    private ObjectMapper objectMapper;
+    private TaskProtobufHttpMessageConverter protobufConverter;
+
+    @Setup
+    public void setUp() throws IOException {
+        taskDTOs = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            taskDTOs.add(new TaskDTO((long) 15_000_000 + i, "Task " + i, "Description of task " + i,
+                    PriorityEnum.values()[i % 3], StatusEnum.values()[i % 3], (long) (i % 5)));
+        }
+        objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "smile" -> TaskResponseFormatConfig.binaryObjectMapper(Jackson2ObjectMapperBuilder.json(),
+                    new SmileFactory());
+            case "cbor" -> TaskResponseFormatConfig.binaryObjectMapper(Jackson2ObjectMapperBuilder.json(),
+                    new CBORFactory());
+            default -> null;
+        };
+        protobufConverter = new TaskProtobufHttpMessageConverter();
+        System.out.printf("%npayload %s rows=%d: %d bytes, %d gzipped%n", format, rows, serialize().length,
+                serializeGzip().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        write(out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serializeGzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            write(gzip);
+        }
+        return out.toByteArray();
+    }
+
+    private void write(OutputStream out) throws IOException {
+        if (objectMapper != null) {
+            objectMapper.writeValue(out, taskDTOs);
+            return;
+        }
+        protobufConverter.write(taskDTOs, List.class, null, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return out;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return new HttpHeaders();
+            }
+        });
+    }
+}
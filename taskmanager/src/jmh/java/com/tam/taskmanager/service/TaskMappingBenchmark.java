@@ -0,0 +1,78 @@
+package com.tam.taskmanager.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tam.taskmanager.dto.task.TaskDTO;
+import com.tam.taskmanager.entity.TaskEntity;
+
+/**
+ * Cost of producing a task listing response body once the rows are loaded:
+ * TaskService.toDto over a page of entities, and Jackson serialization of
+ * the resulting List&lt;TaskDTO&gt; with the ObjectMapper defaults Spring MVC uses.
+ *
+ * Run: ./mvnw -Pjmh test-compile exec:exec -Djmh.args=TaskMappingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskMappingBenchmark {
+
+    // 10 is the default page size of GET /tasks
+    @Param({ "10", "1000" })
+    private int rows;
+
+    private List<TaskEntity> taskEntities;
+    private List<TaskDTO> taskDTOs;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        taskEntities = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            TaskEntity task = new TaskEntity();
+            task.setId((long) i);
+            task.setTitle("Task " + i);
+            task.setDescription("Description of task " + i);
+            task.setPriority(i % 2 == 0 ? "HIGH" : "LOW");
+            task.setStatus(i % 3 == 0 ? "COMPLETED" : "PENDING");
+            task.setVersion((long) (i % 5));
+            taskEntities.add(task);
+        }
+        taskDTOs = toDtos();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public List<TaskDTO> toDtos() {
+        List<TaskDTO> result = new ArrayList<>(taskEntities.size());
+        for (TaskEntity taskEntity : taskEntities) {
+            result.add(TaskService.toDto(taskEntity));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public byte[] serializeJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(taskDTOs);
+    }
+}
@@ -0,0 +1,119 @@
+package com.tam.taskmanager.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.tam.taskmanager.Specs.TaskSpecs;
+import com.tam.taskmanager.dto.task.TaskDTO;
+import com.tam.taskmanager.entity.TaskEntity;
+import com.tam.taskmanager.entity.UserEntity;
+import com.tam.taskmanager.repository.TaskQueryRepositoryImpl;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Compares the managed-entity read path (criteria query for TaskEntity, then
+ * TaskService.toDto per row) with the constructor-expression projection of
+ * TaskQueryRepositoryImpl, on an in-memory H2 database.
+ * One operation reads one page of {@code rows} tasks, so gc.alloc.rate.norm
+ * is the allocation per page (per 1,000 rows by default).
+ *
+ * Run: ./mvnw -Pjmh test-compile exec:exec -Djmh.args=TaskReadPathBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskReadPathBenchmark {
+
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "id");
+
+    @Param({ "1000" })
+    private int rows;
+
+    private SessionFactory sessionFactory;
+    private Specification<TaskEntity> specification;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(TaskEntity.class)
+                .addAnnotatedClass(UserEntity.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL,
+                        "jdbc:h2:mem:task-read-path;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "50")
+                .buildSessionFactory();
+        UserEntity user = new UserEntity();
+        user.setKeycloakUserId("benchmark-user");
+        user.setUserName("benchmark");
+        sessionFactory.inTransaction(session -> {
+            session.persist(user);
+            for (int i = 0; i < rows; i++) {
+                TaskEntity task = new TaskEntity();
+                task.setTitle("Task " + i);
+                task.setDescription("Description of task " + i);
+                task.setPriority(i % 2 == 0 ? "HIGH" : "LOW");
+                task.setStatus(i % 3 == 0 ? "COMPLETED" : "PENDING");
+                task.setAssignedUser(user);
+                session.persist(task);
+            }
+        });
+        specification = new TaskSpecs().getTasksByPriorityAndStatusandUserId(user.getId(), null, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<TaskDTO> entityPath() {
+        try (Session session = sessionFactory.openSession()) {
+            CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+            CriteriaQuery<TaskEntity> query = criteriaBuilder.createQuery(TaskEntity.class);
+            Root<TaskEntity> root = query.from(TaskEntity.class);
+            query.where(specification.toPredicate(root, query, criteriaBuilder));
+            query.orderBy(QueryUtils.toOrders(SORT, root, criteriaBuilder));
+            List<TaskEntity> taskEntities = session.createQuery(query).setMaxResults(rows).getResultList();
+            List<TaskDTO> taskDTOs = new ArrayList<>(taskEntities.size());
+            for (TaskEntity taskEntity : taskEntities) {
+                taskDTOs.add(TaskService.toDto(taskEntity));
+            }
+            return taskDTOs;
+        }
+    }
+
+    @Benchmark
+    public List<TaskDTO> projectionPath() {
+        try (Session session = sessionFactory.openSession()) {
+            return new TaskQueryRepositoryImpl(session).findTaskDtos(specification, SORT, 0, rows);
+        }
+    }
+}
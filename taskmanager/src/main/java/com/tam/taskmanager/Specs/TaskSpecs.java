@@ -1,6 +1,7 @@
 package com.tam.taskmanager.Specs;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.domain.Specification;
@@ -42,9 +43,6 @@ public class TaskSpecs {
     public Specification<TaskEntity> getBySearchinput(Long userId, String searchInput) {
         log.info("Searching tasks with input: {}", searchInput);
         return (root, query, criteriaBuilder) -> {
-            if (searchInput == null || searchInput.trim().isEmpty()) {
-                return criteriaBuilder.conjunction(); // No search input, return all tasks
-            }
             List<Predicate> predicates = new ArrayList<>();
             if (searchInput != null && !searchInput.trim().isEmpty()) {
                 predicates.add(criteriaBuilder.or(
@@ -71,4 +69,20 @@ public class TaskSpecs {
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    public Specification<TaskEntity> getTasksBeforeId(Long lastId) {
+        return (root, query, criteriaBuilder) -> {
+            if (lastId == null) {
+                return criteriaBuilder.conjunction(); // First slice, no lower bound
+            }
+            return criteriaBuilder.lessThan(root.get("id"), lastId);
+        };
+    }
+
+    public Specification<TaskEntity> getTasksByIdsAndUserId(Long userId, Collection<Long> taskIds) {
+        log.info("Fetching {} tasks for user id: {}", taskIds.size(), userId);
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.equal(root.get("assignedUser").get("id"), userId),
+                root.get("id").in(taskIds));
+    }
 }
@@ -2,8 +2,13 @@ package com.tam.taskmanager;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2DBC is only used by the opt-in reactive read path, which configures its own pool (ReactiveReadConfig)
+@SpringBootApplication(exclude = { R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class })
+@EnableScheduling
 public class TaskmanagerApplication {
 
 	public static void main(String[] args) {
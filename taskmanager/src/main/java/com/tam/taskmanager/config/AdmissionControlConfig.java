@@ -0,0 +1,45 @@
+package com.tam.taskmanager.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig {
+
+    // Defaults to one permit per pooled connection
+    @Value("${app.admission.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int maxConcurrent;
+
+    @Value("${app.admission.max-queued:200}")
+    private int maxQueued;
+
+    @Value("${app.admission.max-wait:1s}")
+    private Duration maxWait;
+
+    @Value("${app.admission.retry-after:1s}")
+    private Duration retryAfter;
+
+    /**
+     * Applies to the task API only (actuator stays reachable when saturated).
+     * Runs right after the Server-Timing filter and before Spring Security:
+     * shedding has to happen before the JWT is parsed, otherwise rejected
+     * requests still cost their share of the CPU under overload.
+     */
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<AdmissionControlFilter> bean = new FilterRegistrationBean<>(
+                new AdmissionControlFilter(maxConcurrent, maxQueued, maxWait, retryAfter, meterRegistry));
+        bean.addUrlPatterns("/api/*");
+        bean.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return bean;
+    }
+}
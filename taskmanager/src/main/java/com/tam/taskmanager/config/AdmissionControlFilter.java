@@ -0,0 +1,141 @@
+package com.tam.taskmanager.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limits the API requests in flight to what the connection pool can serve.
+ * With virtual threads nothing else bounds concurrency, and without this
+ * every request beyond the pool size would sit in Hikari's getConnection
+ * until connection-timeout. A request waits in a bounded FIFO queue for at
+ * most max-wait; when the queue is full or the wait runs out it fails
+ * fast with 503 and Retry-After.
+ * Streamed responses keep their permit until the async request completes,
+ * unless the handler set RELEASE_ON_ASYNC_ATTRIBUTE.
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    /**
+     * Set by handlers whose async part does not touch the JDBC pool (streams
+     * over R2DBC): their permit is returned as soon as the handler returns.
+     */
+    public static final String RELEASE_ON_ASYNC_ATTRIBUTE = AdmissionControlFilter.class.getName()
+            + ".RELEASE_ON_ASYNC";
+
+    private final Semaphore permits;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final String retryAfterSeconds;
+    private final Counter rejected;
+
+    public AdmissionControlFilter(int maxConcurrent, int maxQueued, Duration maxWait, Duration retryAfter,
+            MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        this.rejected = Counter.builder("taskmanager.admission.rejected")
+                .description("API requests rejected with 503 because the connection pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("taskmanager.admission.in.flight", permits, p -> maxConcurrent - p.availablePermits())
+                .description("API requests holding an admission permit")
+                .register(meterRegistry);
+        Gauge.builder("taskmanager.admission.queued", permits, Semaphore::getQueueLength)
+                .description("API requests waiting for an admission permit")
+                .register(meterRegistry);
+        log.info("Admission control: maxConcurrent={}, maxQueued={}, maxWait={}", maxConcurrent, maxQueued,
+                maxWait);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            rejected.increment();
+            // No sendError: the /error dispatch would go through Spring Security, which has
+            // not authenticated this request yet, and turn the 503 into a 401
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted() && request.getAttribute(RELEASE_ON_ASYNC_ATTRIBUTE) == null) {
+                request.getAsyncContext().addListener(new ReleasingAsyncListener(released));
+            } else {
+                release(released);
+            }
+        }
+    }
+
+    private boolean acquire() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (permits.getQueueLength() >= maxQueued) {
+            return false;
+        }
+        try {
+            return permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void release(AtomicBoolean released) {
+        if (released.compareAndSet(false, true)) {
+            permits.release();
+        }
+    }
+
+    private class ReleasingAsyncListener implements AsyncListener {
+
+        private final AtomicBoolean released;
+
+        ReleasingAsyncListener(AtomicBoolean released) {
+            this.released = released;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(released);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release(released);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release(released);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Same request, keeps its permit
+        }
+    }
+}
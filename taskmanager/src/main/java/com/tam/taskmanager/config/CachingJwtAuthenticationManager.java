@@ -0,0 +1,126 @@
+package com.tam.taskmanager.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.tam.taskmanager.enums.TimingPhaseEnum;
+
+/**
+ * Authentication manager for bearer tokens that remembers successfully
+ * verified tokens. A repeated token (the SPA sends the same one until it
+ * refreshes) is served from the cache without signature verification or
+ * claim conversion; only new tokens reach the delegate provider.
+ * Entries are keyed by the SHA-256 of the token, so raw tokens are not
+ * kept in memory, and they expire at the token's exp (TokenExpiry).
+ * Only the verified Jwt and its authorities are cached: every request gets
+ * its own JwtAuthenticationToken with its own details, as from the
+ * delegate. Failed authentications are never cached.
+ */
+public class CachingJwtAuthenticationManager implements AuthenticationManager {
+
+    private final AuthenticationProvider delegate;
+    private final Cache<String, VerifiedJwt> verifiedJwtCache;
+
+    public CachingJwtAuthenticationManager(AuthenticationProvider delegate,
+            Cache<String, VerifiedJwt> verifiedJwtCache) {
+        this.delegate = delegate;
+        this.verifiedJwtCache = verifiedJwtCache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        BearerTokenAuthenticationToken bearer = (BearerTokenAuthenticationToken) authentication;
+        long start = System.nanoTime();
+        String key = tokenHash(bearer.getToken());
+        VerifiedJwt cached = verifiedJwtCache.getIfPresent(key);
+        if (cached != null) {
+            Authentication restored = cached.toAuthentication(bearer);
+            RequestTimings.record(TimingPhaseEnum.JWT, start);
+            return restored;
+        }
+        // Concurrent first requests with the same token may both verify it; that is cheaper than blocking
+        Authentication verified = delegate.authenticate(bearer);
+        if (verified instanceof JwtAuthenticationToken jwtAuthentication) {
+            verifiedJwtCache.put(key, new VerifiedJwt(jwtAuthentication.getToken(),
+                    List.copyOf(jwtAuthentication.getAuthorities())));
+        }
+        return verified;
+    }
+
+    static String tokenHash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * What a token was verified to: the decoded Jwt and the authorities
+     * JwtAuthConverter derived from it. Immutable, so one entry can serve
+     * concurrent requests.
+     */
+    public record VerifiedJwt(Jwt jwt, Collection<GrantedAuthority> authorities) {
+
+        JwtAuthenticationToken toAuthentication(BearerTokenAuthenticationToken bearer) {
+            JwtAuthenticationToken authentication = new JwtAuthenticationToken(jwt, authorities);
+            authentication.setDetails(bearer.getDetails());
+            return authentication;
+        }
+    }
+
+    /**
+     * Keeps an entry until the token's exp, at most maxTtl (also for tokens
+     * without exp); reads do not extend it.
+     */
+    public static class TokenExpiry implements Expiry<String, VerifiedJwt> {
+
+        private final Duration maxTtl;
+
+        public TokenExpiry(Duration maxTtl) {
+            this.maxTtl = maxTtl;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedJwt verifiedJwt, long currentTime) {
+            Instant expiresAt = verifiedJwt.jwt().getExpiresAt();
+            long maxTtlNanos = maxTtl.toNanos();
+            if (expiresAt == null) {
+                return maxTtlNanos;
+            }
+            long untilExpiry = Duration.between(Instant.now(), expiresAt).toNanos();
+            return Math.max(0, Math.min(untilExpiry, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedJwt verifiedJwt, long currentTime,
+                long currentDuration) {
+            return expireAfterCreate(key, verifiedJwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedJwt verifiedJwt, long currentTime,
+                long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.tam.taskmanager.config;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.tam.taskmanager.enums.RequestClassEnum;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@ConditionalOnProperty(name = "app.fair-share.enabled", havingValue = "true", matchIfMissing = true)
+public class FairShareConfig {
+
+    @Value("${app.fair-share.read.rate:50}")
+    private double readRate;
+
+    @Value("${app.fair-share.read.burst:100}")
+    private int readBurst;
+
+    @Value("${app.fair-share.search.rate:10}")
+    private double searchRate;
+
+    @Value("${app.fair-share.search.burst:20}")
+    private int searchBurst;
+
+    @Value("${app.fair-share.write.rate:20}")
+    private double writeRate;
+
+    @Value("${app.fair-share.write.burst:50}")
+    private int writeBurst;
+
+    @Value("${app.fair-share.max-users:100000}")
+    private long maxUsers;
+
+    @Value("${app.fair-share.idle-timeout:10m}")
+    private Duration idleTimeout;
+
+    /**
+     * Needs the authenticated principal, so it runs right after Spring
+     * Security, next to the ReadYourWritesFilter.
+     */
+    @Bean
+    public FilterRegistrationBean<FairShareFilter> fairShareFilter(MeterRegistry meterRegistry) {
+        Map<RequestClassEnum, FairShareFilter.Limit> limits = new EnumMap<>(RequestClassEnum.class);
+        limits.put(RequestClassEnum.READ, new FairShareFilter.Limit(readRate, readBurst));
+        limits.put(RequestClassEnum.SEARCH, new FairShareFilter.Limit(searchRate, searchBurst));
+        limits.put(RequestClassEnum.WRITE, new FairShareFilter.Limit(writeRate, writeBurst));
+        FilterRegistrationBean<FairShareFilter> bean = new FilterRegistrationBean<>(
+                new FairShareFilter(limits, maxUsers, idleTimeout, meterRegistry));
+        bean.addUrlPatterns("/api/*");
+        bean.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return bean;
+    }
+}
@@ -0,0 +1,147 @@
+package com.tam.taskmanager.config;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tam.taskmanager.enums.RequestClassEnum;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-user token buckets for the API, one per endpoint class (read, search,
+ * write), so a single client cannot take every pooled connection the
+ * AdmissionControlFilter hands out. A request over its user's rate fails
+ * with 429 and Retry-After before the controller touches the database.
+ * Each bucket is a single long (GCRA: the time at which the bucket is
+ * full again) updated with one CAS, and the buckets of a user share one
+ * entry of a Caffeine map, which drops users idle for idle-timeout. An idle
+ * user's buckets are full anyway, so eviction never loosens a limit as
+ * long as idle-timeout exceeds burst / rate.
+ * Keyed by the JWT subject, so it runs after Spring Security: a subject
+ * read from an unverified token would let anyone drain another user's
+ * buckets.
+ */
+@Slf4j
+public class FairShareFilter extends OncePerRequestFilter {
+
+    /**
+     * Sustained requests per second, and the bucket size: how many requests
+     * an idle user may send at once.
+     * A rate of 0 or less disables the limit of the class.
+     */
+    public record Limit(double ratePerSecond, int burst) {
+    }
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+    private static final String SEARCH_PATH_SUFFIX = "/tasks/search";
+    private static final RequestClassEnum[] REQUEST_CLASSES = RequestClassEnum.values();
+
+    // Per request class: time one request adds to the bucket, and how far ahead of now it may get
+    private final long[] intervalNanos = new long[REQUEST_CLASSES.length];
+    private final long[] capacityNanos = new long[REQUEST_CLASSES.length];
+    private final Counter[] rejected = new Counter[REQUEST_CLASSES.length];
+    private final Cache<String, AtomicLongArray> buckets;
+
+    public FairShareFilter(Map<RequestClassEnum, Limit> limits, long maxUsers, Duration idleTimeout,
+            MeterRegistry meterRegistry) {
+        for (RequestClassEnum requestClass : REQUEST_CLASSES) {
+            Limit limit = limits.get(requestClass);
+            int i = requestClass.ordinal();
+            if (limit != null && limit.ratePerSecond() > 0) {
+                intervalNanos[i] = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / limit.ratePerSecond()));
+                capacityNanos[i] = intervalNanos[i] * Math.max(1, limit.burst());
+            }
+            rejected[i] = Counter.builder("taskmanager.fairshare.rejected")
+                    .description("API requests rejected with 429 because the user exceeded the rate of the class")
+                    .tag("class", requestClass.getMetricName())
+                    .register(meterRegistry);
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        Gauge.builder("taskmanager.fairshare.users", buckets, Cache::estimatedSize)
+                .description("Users with rate limit buckets")
+                .register(meterRegistry);
+        log.info("Fair-share limits: {}, maxUsers={}, idleTimeout={}", limits, maxUsers, idleTimeout);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Principal principal = request.getUserPrincipal();
+        int i = classify(request).ordinal();
+        if (principal == null || intervalNanos[i] == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long waitNanos = take(principal.getName(), i);
+        if (waitNanos > 0) {
+            rejected[i].increment();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            // Whole seconds, rounded up
+            response.setHeader(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static RequestClassEnum classify(HttpServletRequest request) {
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            return RequestClassEnum.WRITE;
+        }
+        return request.getRequestURI().endsWith(SEARCH_PATH_SUFFIX) ? RequestClassEnum.SEARCH
+                : RequestClassEnum.READ;
+    }
+
+    /**
+     * Takes one token from bucket i of the user. Returns 0 when taken,
+     * otherwise how long until a token is available.
+     */
+    private long take(String user, int i) {
+        AtomicLongArray fullAt = buckets.get(user, key -> newBuckets());
+        long interval = intervalNanos[i];
+        long capacity = capacityNanos[i];
+        while (true) {
+            long now = System.nanoTime();
+            long current = fullAt.get(i);
+            // nanoTime may be negative: compare differences only
+            long next = (current - now > 0 ? current : now) + interval;
+            long ahead = next - now;
+            if (ahead > capacity) {
+                return ahead - capacity;
+            }
+            if (fullAt.compareAndSet(i, current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private static AtomicLongArray newBuckets() {
+        AtomicLongArray fullAt = new AtomicLongArray(REQUEST_CLASSES.length);
+        long now = System.nanoTime();
+        for (int i = 0; i < REQUEST_CLASSES.length; i++) {
+            fullAt.set(i, now);
+        }
+        return fullAt;
+    }
+}
@@ -0,0 +1,77 @@
+package com.tam.taskmanager.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.tam.taskmanager.entity.TaskEntity;
+import com.tam.taskmanager.entity.UserEntity;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caffeine-backed JCache regions for the Hibernate second-level cache.
+ * Regions are created here with the app.hibernate-cache sizes and TTLs and
+ * Hibernate is configured to fail on any region it does not find, so an
+ * entity cannot silently end up in an unbounded default cache. Task lists
+ * are cached per user in TaskListCache instead of Hibernate's query cache,
+ * which could only invalidate them all at once.
+ * Hits, misses and puts per region are published as hibernate.second.level.cache.*
+ * meters (hibernate.generate_statistics).
+ */
+@Slf4j
+@Configuration
+public class HibernateCacheConfig {
+
+    @Value("${app.hibernate-cache.entity.maximum-size:10000}")
+    private long entityMaximumSize;
+
+    @Value("${app.hibernate-cache.entity.expire-after-write:10m}")
+    private Duration entityExpireAfterWrite;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        log.info("Configuring Hibernate cache with entity maximumSize={}, expireAfterWrite={}", entityMaximumSize,
+                entityExpireAfterWrite);
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Own manager per application context: the provider's default one is shared by every context
+        // of the class loader (devtools restarts, test contexts), which would replace each other's regions
+        CacheManager cacheManager = provider.getCacheManager(URI.create("taskmanager-hibernate-" + UUID.randomUUID()),
+                HibernateCacheConfig.class.getClassLoader());
+        createRegion(cacheManager, TaskEntity.CACHE_REGION, entityMaximumSize, entityExpireAfterWrite);
+        createRegion(cacheManager, UserEntity.CACHE_REGION, entityMaximumSize, entityExpireAfterWrite);
+        createRegion(cacheManager, UserEntity.NATURAL_ID_CACHE_REGION, entityMaximumSize, entityExpireAfterWrite);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static void createRegion(CacheManager cacheManager, String region, Long maximumSize,
+            Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maximumSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        }
+        if (expireAfterWrite != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        }
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+}
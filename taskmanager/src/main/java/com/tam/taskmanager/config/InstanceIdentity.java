@@ -0,0 +1,41 @@
+package com.tam.taskmanager.config;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Names the database sessions of this instance: every Hikari pool connects
+ * with application_name "taskmanager-" plus a random id per start. The task
+ * event triggers put it into their notifications as the origin, so
+ * TaskEventListener can tell writes of this instance, whose caches were
+ * already invalidated on the write path, from writes of other instances.
+ * Also identifies the instance in pg_stat_activity.
+ */
+@Slf4j
+@Component
+public class InstanceIdentity implements BeanPostProcessor {
+
+    // pgjdbc connection property behind application_name
+    private static final String APPLICATION_NAME_PROPERTY = "ApplicationName";
+
+    private final String applicationName = "taskmanager-" + UUID.randomUUID().toString().substring(0, 8);
+
+    public String getApplicationName() {
+        return applicationName;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            log.info("Connecting data source {} as application_name {}", beanName, applicationName);
+            dataSource.addDataSourceProperty(APPLICATION_NAME_PROPERTY, applicationName);
+        }
+        return bean;
+    }
+}
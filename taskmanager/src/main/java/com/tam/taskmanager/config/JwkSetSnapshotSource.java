@@ -0,0 +1,138 @@
+package com.tam.taskmanager.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * JWK source for token verification that never waits on Keycloak in the
+ * common case. The key set is loaded from a local snapshot file at
+ * startup, refreshed from jwk-set-uri in the background and written back
+ * to the snapshot after every successful fetch.
+ * A token signed with an unknown key (rotation before the next refresh)
+ * triggers one synchronous refresh, rate limited to app.jwks.min-refresh-interval.
+ */
+@Slf4j
+@Component
+public class JwkSetSnapshotSource implements JWKSource<SecurityContext> {
+
+    // Nimbus size limit for a fetched key set, in bytes
+    private static final int JWKS_SIZE_LIMIT = 512 * 1024;
+
+    private final AtomicReference<JWKSet> jwkSet = new AtomicReference<>(new JWKSet());
+    private final AtomicLong lastFetchAttemptNanos = new AtomicLong(System.nanoTime() - Long.MAX_VALUE / 2);
+
+    private final URI jwkSetUri;
+    private final Path snapshotPath;
+    private final Duration fetchTimeout;
+    private final Duration minRefreshInterval;
+
+    public JwkSetSnapshotSource(
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+            @Value("${app.jwks.snapshot-path:${java.io.tmpdir}/taskmanager-jwks.json}") Path snapshotPath,
+            @Value("${app.jwks.fetch-timeout:2s}") Duration fetchTimeout,
+            @Value("${app.jwks.min-refresh-interval:30s}") Duration minRefreshInterval) {
+        this.jwkSetUri = URI.create(jwkSetUri);
+        this.snapshotPath = snapshotPath;
+        this.fetchTimeout = fetchTimeout;
+        this.minRefreshInterval = minRefreshInterval;
+        loadSnapshot();
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+        List<JWK> keys = jwkSelector.select(jwkSet.get());
+        if (keys.isEmpty() && refreshIfDue()) {
+            keys = jwkSelector.select(jwkSet.get());
+        }
+        return keys;
+    }
+
+    /**
+     * Background refresh; the first run happens right after startup.
+     */
+    @Scheduled(initialDelayString = "${app.jwks.initial-delay:0s}", fixedDelayString = "${app.jwks.refresh-interval:5m}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    private boolean refreshIfDue() {
+        long now = System.nanoTime();
+        long last = lastFetchAttemptNanos.get();
+        if (now - last < minRefreshInterval.toNanos() || !lastFetchAttemptNanos.compareAndSet(last, now)) {
+            return false;
+        }
+        log.info("No matching JWK for token, refreshing key set from {}", jwkSetUri);
+        return fetch();
+    }
+
+    boolean refresh() {
+        lastFetchAttemptNanos.set(System.nanoTime());
+        return fetch();
+    }
+
+    private boolean fetch() {
+        JWKSet fetched;
+        try {
+            int timeoutMillis = (int) fetchTimeout.toMillis();
+            fetched = JWKSet.load(jwkSetUri.toURL(), timeoutMillis, timeoutMillis, JWKS_SIZE_LIMIT);
+        } catch (IOException | ParseException e) {
+            log.warn("Could not fetch JWK set from {}, keeping {} cached keys: {}", jwkSetUri,
+                    jwkSet.get().size(), e.getMessage());
+            return false;
+        }
+        JWKSet previous = jwkSet.getAndSet(fetched);
+        if (!previous.toString().equals(fetched.toString())) {
+            log.info("JWK set updated from {} ({} keys)", jwkSetUri, fetched.size());
+            writeSnapshot(fetched);
+        }
+        return true;
+    }
+
+    private void loadSnapshot() {
+        if (!Files.isReadable(snapshotPath)) {
+            log.info("No JWK snapshot at {}, keys will be fetched from {}", snapshotPath, jwkSetUri);
+            return;
+        }
+        try {
+            JWKSet snapshot = JWKSet.parse(Files.readString(snapshotPath, StandardCharsets.UTF_8));
+            jwkSet.set(snapshot);
+            log.info("Loaded {} keys from JWK snapshot {}", snapshot.size(), snapshotPath);
+        } catch (IOException | ParseException e) {
+            log.warn("Ignoring unreadable JWK snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    private void writeSnapshot(JWKSet snapshot) {
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "jwks", ".tmp");
+            Files.writeString(temp, snapshot.toString(true), StandardCharsets.UTF_8);
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write JWK snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+}
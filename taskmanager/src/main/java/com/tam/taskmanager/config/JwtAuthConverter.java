@@ -1,6 +1,5 @@
 package com.tam.taskmanager.config;
 
-import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
@@ -10,12 +9,12 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.stereotype.Component;
 
-import java.util.Collections;
-import java.util.List;
+import com.tam.taskmanager.enums.TimingPhaseEnum;
+
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Component
 public class JwtAuthConverter implements Converter<Jwt, AbstractAuthenticationToken>{
@@ -28,24 +27,26 @@ public class JwtAuthConverter implements Converter<Jwt, AbstractAuthenticationTo
 
   @Override
   public AbstractAuthenticationToken convert(Jwt jwt) {
-      final Set<GrantedAuthority> authorities = Stream.concat(
-              jwtGrantedAuthoritiesConverter.convert(jwt).stream(),
-              extractUserRoles(jwt).stream()
-      ).collect(Collectors.toSet());
-      return new JwtAuthenticationToken(jwt, authorities);
+      long start = System.nanoTime();
+      final Set<GrantedAuthority> authorities = new HashSet<>(jwtGrantedAuthoritiesConverter.convert(jwt));
+      addUserRoles(jwt, authorities);
+      JwtAuthenticationToken token = new JwtAuthenticationToken(jwt, authorities);
+      RequestTimings.record(TimingPhaseEnum.JWT, start);
+      return token;
   }
 
-  @SuppressWarnings("unchecked")
-private Set<? extends GrantedAuthority> extractUserRoles(Jwt jwt) {
-      final Map<String, Object> realmAccess = jwt.getClaim("realm_access");
-      final List<String> realmRoles = (List<String>) realmAccess.get("roles");
-
-      if (CollectionUtils.isNotEmpty(realmRoles)) {
-          return realmRoles.stream()
-                  .map(role -> new SimpleGrantedAuthority("role_" + role))
-                  .collect(Collectors.toSet());
+  // Tokens without realm_access (e.g. client credentials) simply have no realm roles
+  private void addUserRoles(Jwt jwt, Set<GrantedAuthority> authorities) {
+      if (!(jwt.getClaims().get("realm_access") instanceof Map<?, ?> realmAccess)) {
+          return;
+      }
+      if (!(realmAccess.get("roles") instanceof Collection<?> realmRoles)) {
+          return;
+      }
+      for (Object role : realmRoles) {
+          if (role != null) {
+              authorities.add(new SimpleGrantedAuthority("role_" + role));
+          }
       }
-
-      return Collections.emptySet();
   }
 }
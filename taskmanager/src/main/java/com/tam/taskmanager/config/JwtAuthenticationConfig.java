@@ -0,0 +1,77 @@
+package com.tam.taskmanager.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.tam.taskmanager.config.CachingJwtAuthenticationManager.VerifiedJwt;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Configuration
+public class JwtAuthenticationConfig {
+
+    @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
+    private String issuerUri;
+
+    @Value("${app.jwt-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${app.jwt-cache.max-ttl:10m}")
+    private Duration maxTtl;
+
+    /**
+     * RS256 decoder verifying against the local JWK snapshot instead of
+     * fetching jwk-set-uri on demand. Validation (issuer, exp/nbf) is the
+     * same as Boot's default decoder.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(JwkSetSnapshotSource jwkSetSnapshotSource) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSetSnapshotSource));
+        // Claims are checked by the Spring validators below
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        NimbusJwtDecoder jwtDecoder = new NimbusJwtDecoder(jwtProcessor);
+        jwtDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+        return jwtDecoder;
+    }
+
+    /**
+     * Verified tokens by token hash. Each entry lives until the token's exp,
+     * capped at app.jwt-cache.max-ttl.
+     */
+    @Bean
+    public Cache<String, VerifiedJwt> verifiedJwtCache(MeterRegistry meterRegistry) {
+        log.info("Configuring JWT authentication cache with maximumSize={}, maxTtl={}", maximumSize, maxTtl);
+        Cache<String, VerifiedJwt> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new CachingJwtAuthenticationManager.TokenExpiry(maxTtl))
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtAuthenticationCache");
+    }
+
+    @Bean
+    public CachingJwtAuthenticationManager jwtAuthenticationManager(JwtDecoder jwtDecoder,
+            JwtAuthConverter jwtAuthConverter, Cache<String, VerifiedJwt> verifiedJwtCache) {
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(jwtDecoder);
+        provider.setJwtAuthenticationConverter(jwtAuthConverter);
+        return new CachingJwtAuthenticationManager(provider, verifiedJwtCache);
+    }
+}
@@ -0,0 +1,98 @@
+package com.tam.taskmanager.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.actuate.r2dbc.ConnectionFactoryHealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Result;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * R2DBC connection pool for the reactive read path.
+ * Configured by hand instead of through spring.r2dbc.*, and deliberately
+ * not a ConnectionFactory bean: Boot backs off its DataSource as soon as
+ * one exists, and the R2DBC transaction manager would compete with the
+ * JPA one for every @Transactional method (both auto configurations are
+ * excluded in TaskmanagerApplication). Reads on this pool run without a
+ * transaction, as single statements.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveReadConfig {
+
+    private static final String POOL_NAME = "taskmanager-r2dbc";
+
+    private final ConnectionPool connectionPool;
+
+    /**
+     * A slow consumer holds its connection until it has read the last row,
+     * so max-size bounds the number of concurrent streams; the rest wait
+     * up to max-acquire-time.
+     */
+    public ReactiveReadConfig(
+            @Value("${app.reactive.url}") String url,
+            @Value("${app.reactive.username:${spring.datasource.username}}") String username,
+            @Value("${app.reactive.password:${spring.datasource.password}}") String password,
+            @Value("${app.reactive.pool.initial-size:2}") int initialSize,
+            @Value("${app.reactive.pool.max-size:20}") int maxSize,
+            @Value("${app.reactive.pool.max-acquire-time:5s}") Duration maxAcquireTime,
+            // Same session settings as the JDBC pool (pg_trgm threshold for full-text search)
+            @Value("${app.reactive.connection-init-sql:}") String connectionInitSql) {
+        log.info("Configuring R2DBC pool for {} with initialSize={}, maxSize={}, maxAcquireTime={}", url,
+                initialSize, maxSize, maxAcquireTime);
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        ConnectionPoolConfiguration.Builder configuration = ConnectionPoolConfiguration.builder(connectionFactory)
+                .name(POOL_NAME)
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime);
+        if (!connectionInitSql.isBlank()) {
+            configuration.postAllocate(connection -> Flux.from(connection.createStatement(connectionInitSql).execute())
+                    .flatMap(Result::getRowsUpdated)
+                    .then());
+        }
+        this.connectionPool = new ConnectionPool(configuration.build());
+    }
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        return DatabaseClient.create(connectionPool);
+    }
+
+    // Shown as reactiveDatabase in /actuator/health
+    @Bean
+    public ReactiveHealthIndicator reactiveDatabaseHealthIndicator() {
+        return new ConnectionFactoryHealthIndicator(connectionPool);
+    }
+
+    // r2dbc.pool.* gauges tagged name=taskmanager-r2dbc
+    @Bean
+    public MeterBinder reactiveConnectionPoolMetrics() {
+        return new ConnectionPoolMetrics(connectionPool, POOL_NAME, Tags.empty());
+    }
+
+    @PreDestroy
+    public void closeConnectionPool() {
+        connectionPool.dispose();
+    }
+}
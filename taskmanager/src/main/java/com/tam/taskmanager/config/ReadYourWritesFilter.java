@@ -0,0 +1,50 @@
+package com.tam.taskmanager.config;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.Set;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Marks the caller of every modifying API request in the
+ * ReplicaRoutingDataSource, so their next reads see their own writes.
+ * Marked before the request (the response may reach the client before
+ * this filter returns) and again after it, so the window starts at commit.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    public ReadYourWritesFilter(ReplicaRoutingDataSource routingDataSource) {
+        this.routingDataSource = routingDataSource;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return SAFE_METHODS.contains(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Principal principal = request.getUserPrincipal();
+        if (principal == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        routingDataSource.markWrite(principal.getName());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            routingDataSource.markWrite(principal.getName());
+        }
+    }
+}
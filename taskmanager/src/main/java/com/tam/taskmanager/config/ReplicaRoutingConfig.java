@@ -0,0 +1,88 @@
+package com.tam.taskmanager.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read replica routing (app.replica.enabled). Replaces Boot's single pool
+ * with two Hikari pools: the primary bound from spring.datasource(.hikari)
+ * and the replica from app.replica(.hikari). Everything (JPA, JdbcTemplate,
+ * Liquibase) uses the routing "dataSource"; only read-only transactions
+ * are sent to the replica. Both pools get their own hikaricp.* meters
+ * (pool tag) and db health component (primaryDataSource, replicaDataSource).
+ * Locally the replica can be any ordinary database with the same schema,
+ * or the primary's URL itself.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Value("${app.replica.max-lag:5s}")
+    private Duration maxLag;
+
+    // Reads of a caller stay on the primary this long after a write
+    @Value("${app.replica.read-your-writes-window:${app.replica.max-lag:5s}}")
+    private Duration readYourWritesWindow;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${app.replica.url}") String url,
+            @Value("${app.replica.username}") String username, @Value("${app.replica.password}") String password) {
+        log.info("Routing read-only transactions to replica {} with max lag {}", url, maxLag);
+        return DataSourceBuilder.create().type(HikariDataSource.class).url(url).username(username)
+                .password(password).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource, MeterRegistry meterRegistry) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, maxLag, readYourWritesWindow,
+                meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Needs the authenticated principal, so it runs right after Spring Security.
+     */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            ReplicaRoutingDataSource replicaRoutingDataSource) {
+        FilterRegistrationBean<ReadYourWritesFilter> bean = new FilterRegistrationBean<>(
+                new ReadYourWritesFilter(replicaRoutingDataSource));
+        bean.addUrlPatterns("/api/*");
+        bean.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return bean;
+    }
+}
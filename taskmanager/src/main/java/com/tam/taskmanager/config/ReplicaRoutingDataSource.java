@@ -0,0 +1,145 @@
+package com.tam.taskmanager.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends read-only transactions to the replica pool and everything else to
+ * the primary. A read-only transaction still goes to the primary when
+ * - the replica lags more than max-lag behind, or its lag check failed,
+ * - the caller wrote within the read-your-writes window (ReadYourWritesFilter),
+ * - it runs inside {@link #onPrimary}.
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager
+ * asks for the connection before the read-only flag is visible.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    // Streaming replica: 0 when everything received is replayed, else the age of the last replayed
+    // commit. An ordinary database (local setup) always reports 0.
+    private static final String REPLICA_LAG = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+            END
+            """;
+
+    private static final ThreadLocal<Integer> PRIMARY_DEPTH = ThreadLocal.withInitial(() -> 0);
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final double maxLagSeconds;
+    private final Cache<String, Boolean> recentWriters;
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+
+    private volatile boolean replicaUsable;
+    private boolean checked;
+    private volatile double lagSeconds = -1;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag,
+            Duration readYourWritesWindow, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.replicaJdbcTemplate = new JdbcTemplate(replica);
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(readYourWritesWindow).build();
+        this.primaryReads = Counter.builder("taskmanager.datasource.reads").tag("target", "primary")
+                .description("Read-only transactions by the pool that served them")
+                .register(meterRegistry);
+        this.replicaReads = Counter.builder("taskmanager.datasource.reads").tag("target", "replica")
+                .description("Read-only transactions by the pool that served them")
+                .register(meterRegistry);
+        Gauge.builder("taskmanager.datasource.replica.lag", this, r -> r.lagSeconds)
+                .description("Replica replay lag in seconds, -1 when the last check failed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the work with every transaction started inside it on the
+     * primary, for reads that must see a write made elsewhere just now.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        PRIMARY_DEPTH.set(PRIMARY_DEPTH.get() + 1);
+        try {
+            return work.get();
+        } finally {
+            int depth = PRIMARY_DEPTH.get() - 1;
+            if (depth == 0) {
+                PRIMARY_DEPTH.remove();
+            } else {
+                PRIMARY_DEPTH.set(depth);
+            }
+        }
+    }
+
+    /**
+     * Keeps the reads of this caller on the primary for the read-your-writes window.
+     */
+    public void markWrite(String principal) {
+        recentWriters.put(principal, Boolean.TRUE);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Target.PRIMARY;
+        }
+        if (replicaUsable && PRIMARY_DEPTH.get() == 0 && !isRecentWriter()) {
+            replicaReads.increment();
+            return Target.REPLICA;
+        }
+        primaryReads.increment();
+        return Target.PRIMARY;
+    }
+
+    @Scheduled(fixedDelayString = "${app.replica.lag-check-interval:1s}")
+    public void checkLag() {
+        boolean wasUsable = replicaUsable;
+        boolean firstCheck = !checked;
+        checked = true;
+        try {
+            Double lag = replicaJdbcTemplate.queryForObject(REPLICA_LAG, Double.class);
+            lagSeconds = lag != null ? lag : 0;
+            replicaUsable = lagSeconds <= maxLagSeconds;
+        } catch (Exception e) {
+            lagSeconds = -1;
+            replicaUsable = false;
+            if (wasUsable || firstCheck) {
+                log.error("Replica lag check failed, reading from the primary: {}", e.getMessage());
+            }
+            return;
+        }
+        if (wasUsable != replicaUsable || firstCheck) {
+            log.warn("Replica {} (lag {}s, max {}s)",
+                    replicaUsable ? "in use" : "lagging, reading from the primary", lagSeconds, maxLagSeconds);
+        }
+    }
+
+    private boolean isRecentWriter() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && recentWriters.getIfPresent(authentication.getName()) != null;
+    }
+}
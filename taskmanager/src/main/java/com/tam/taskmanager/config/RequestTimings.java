@@ -0,0 +1,108 @@
+package com.tam.taskmanager.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.tam.taskmanager.enums.TimingPhaseEnum;
+
+/**
+ * Per-request phase timings, bound to the request thread by
+ * ServerTimingFilter. Recording is a ThreadLocal lookup and an array add,
+ * and a no-op outside a timed request (async threads, scheduled jobs).
+ *
+ * Usage: long start = System.nanoTime(); ... RequestTimings.record(TimingPhaseEnum.USER, start);
+ */
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private static final TimingPhaseEnum[] PHASES = TimingPhaseEnum.values();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] phaseNanos = new long[PHASES.length];
+    private final int[] phaseCounts = new int[PHASES.length];
+
+    private RequestTimings() {
+    }
+
+    static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Adds the time elapsed since startNanos (from System.nanoTime) to the
+     * phase of the current request, if there is one.
+     */
+    public static void record(TimingPhaseEnum phase, long startNanos) {
+        add(phase, System.nanoTime() - startNanos);
+    }
+
+    static void add(TimingPhaseEnum phase, long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.phaseNanos[phase.ordinal()] += nanos;
+            timings.phaseCounts[phase.ordinal()]++;
+        }
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Header value such as {@code jwt;dur=0.41, db;dur=3.2;desc="2 calls", total;dur=5.03}.
+     * Phases that did not run are left out; durations are in milliseconds.
+     */
+    String toServerTiming() {
+        StringBuilder header = new StringBuilder(128);
+        for (TimingPhaseEnum phase : PHASES) {
+            int count = phaseCounts[phase.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            header.append(phase.getMetricName()).append(";dur=");
+            appendMillis(header, phaseNanos[phase.ordinal()]);
+            if (count > 1) {
+                header.append(";desc=\"").append(count).append(" calls\"");
+            }
+            header.append(", ");
+        }
+        header.append("total;dur=");
+        appendMillis(header, elapsedNanos());
+        return header.toString();
+    }
+
+    /**
+     * Phase durations in milliseconds, in phase order, for the slow request log.
+     */
+    Map<String, Double> toMillisByPhase() {
+        Map<String, Double> phases = new LinkedHashMap<>();
+        for (TimingPhaseEnum phase : PHASES) {
+            if (phaseCounts[phase.ordinal()] > 0) {
+                phases.put(phase.getMetricName(), Math.round(phaseNanos[phase.ordinal()] / 10_000.0) / 100.0);
+            }
+        }
+        return phases;
+    }
+
+    // Two decimals without String.format, which would dominate the cost of this class
+    private static void appendMillis(StringBuilder header, long nanos) {
+        long hundredths = (nanos + 5_000) / 10_000;
+        header.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            header.append('0');
+        }
+        header.append(fraction);
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -18,7 +19,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import com.tam.taskmanager.config.JwtAuthConverter;
+import com.tam.taskmanager.controller.TaskManagerController;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,8 +31,11 @@ import lombok.extern.slf4j.Slf4j;
 @EnableMethodSecurity
 public class SecurityConfig {
 
+        // Realm role admin, as mapped by JwtAuthConverter
+        private static final String ADMIN_AUTHORITY = "role_admin";
+
         @Autowired
-        private JwtAuthConverter jwtConverter;
+        private CachingJwtAuthenticationManager jwtAuthenticationManager;
 
         @Value("#{'${security.allowedOrigin}'.split(',')}")
         private List<String> allowedOrigin;
@@ -41,11 +45,14 @@ public class SecurityConfig {
                 log.info("Configuring security filter chain");
                 http
                                 .authorizeHttpRequests((authorize) -> authorize
-                                                .requestMatchers("/actuator/health").permitAll()
+                                                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                                                // Operations endpoints (backfill control, caches, metrics) are
+                                                // not for end users: realm role admin only
+                                                .requestMatchers("/actuator/**").hasAuthority(ADMIN_AUTHORITY)
                                                 .anyRequest().authenticated())
                                 .oauth2ResourceServer(
                                                 (oauth2) -> oauth2.jwt(
-                                                                jwt -> jwt.jwtAuthenticationConverter(jwtConverter)))
+                                                                jwt -> jwt.authenticationManager(jwtAuthenticationManager)))
                                 .sessionManagement(
                                                 session -> session.sessionCreationPolicy(
                                                                 SessionCreationPolicy.STATELESS));
@@ -59,8 +66,9 @@ public class SecurityConfig {
                 CorsConfiguration config = new CorsConfiguration();
                 config.setAllowCredentials(true);
                 config.setAllowedOrigins(allowedOrigin);
-                config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+                config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
                 config.setAllowedHeaders(Collections.singletonList("*"));
+                config.setExposedHeaders(Arrays.asList(TaskManagerController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG));
                 source.registerCorsConfiguration("/**", config);
                 FilterRegistrationBean<CorsFilter> bean = new FilterRegistrationBean<>(new CorsFilter(source));
                 bean.setOrder(Ordered.HIGHEST_PRECEDENCE);
@@ -0,0 +1,87 @@
+package com.tam.taskmanager.config;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.tam.taskmanager.enums.TimingPhaseEnum;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Wires the Server-Timing phases: the filter that owns the per-request
+ * timings, JWT decoding, repository calls and JSON serialization.
+ * The authorization check, JwtAuthConverter and the user id lookup record
+ * their own phase.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.timing.enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingConfig implements WebMvcConfigurer {
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(SlowRequestLog slowRequestLog) {
+        FilterRegistrationBean<ServerTimingFilter> bean = new FilterRegistrationBean<>(
+                new ServerTimingFilter(slowRequestLog));
+        // Right after CORS, before the Spring Security filter chain
+        bean.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return bean;
+    }
+
+    @Bean
+    public static BeanPostProcessor timedJwtDecoderPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JwtDecoder jwtDecoder) {
+                    return (JwtDecoder) token -> {
+                        long start = System.nanoTime();
+                        try {
+                            return jwtDecoder.decode(token);
+                        } finally {
+                            RequestTimings.record(TimingPhaseEnum.JWT, start);
+                        }
+                    };
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor timedRepositoryPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+                    repositoryFactoryBean.addRepositoryFactoryCustomizer(repositoryFactory -> repositoryFactory
+                            .addInvocationListener(invocation -> RequestTimings.add(TimingPhaseEnum.DB,
+                                    invocation.getDuration(TimeUnit.NANOSECONDS))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() == MappingJackson2HttpMessageConverter.class) {
+                MappingJackson2HttpMessageConverter jackson = (MappingJackson2HttpMessageConverter) converters.get(i);
+                converters.set(i, new TimedJackson2HttpMessageConverter(jackson.getObjectMapper()));
+                log.debug("Timing JSON serialization for Server-Timing");
+            }
+        }
+    }
+}
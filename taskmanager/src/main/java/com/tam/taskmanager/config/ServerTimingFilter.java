@@ -0,0 +1,53 @@
+package com.tam.taskmanager.config;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Times each request, adds the Server-Timing header right before the
+ * response is committed and hands the result to the slow request log.
+ * Registered ahead of the security filter chain so JWT decoding is inside
+ * the measured window.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final SlowRequestLog slowRequestLog;
+
+    public ServerTimingFilter(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start();
+        ServerTimingResponseWrapper timedResponse = new ServerTimingResponseWrapper(response, timings);
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            long totalNanos = timings.elapsedNanos();
+            // Responses without a body never touched the output stream
+            timedResponse.writeServerTiming();
+            RequestTimings.clear();
+            // Streamed (async) responses finish on another thread, their total is not known here
+            if (!request.isAsyncStarted()) {
+                slowRequestLog.record(request.getMethod(), route(request), response.getStatus(), totalNanos, timings);
+            }
+        }
+    }
+
+    // Route template rather than the raw URI, so no ids or search terms end up in the log
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+}
@@ -0,0 +1,69 @@
+package com.tam.taskmanager.config;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Writes the Server-Timing header the first time the body is accessed,
+ * which is the last moment headers can still change.
+ */
+class ServerTimingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final RequestTimings timings;
+    private boolean written;
+
+    ServerTimingResponseWrapper(HttpServletResponse response, RequestTimings timings) {
+        super(response);
+        this.timings = timings;
+    }
+
+    void writeServerTiming() {
+        if (written) {
+            return;
+        }
+        written = true;
+        if (!isCommitted()) {
+            setHeader(ServerTimingFilter.SERVER_TIMING_HEADER, timings.toServerTiming());
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        writeServerTiming();
+        return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        writeServerTiming();
+        return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        writeServerTiming();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        writeServerTiming();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        writeServerTiming();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        writeServerTiming();
+        super.sendRedirect(location);
+    }
+}
@@ -0,0 +1,31 @@
+package com.tam.taskmanager.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint listing the recent slow requests with their
+ * Server-Timing phase breakdown, slowest first.
+ * request example: http://localhost:8084/task-management/actuator/slowrequests
+ */
+@Component
+@Endpoint(id = "slowrequests")
+public class SlowRequestEndpoint {
+
+    @Autowired
+    private SlowRequestLog slowRequestLog;
+
+    @ReadOperation
+    public Map<String, Object> slowRequests() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("thresholdMs", slowRequestLog.thresholdMillis());
+        result.put("recordedCount", slowRequestLog.recordedCount());
+        result.put("requests", slowRequestLog.slowest());
+        return result;
+    }
+}
@@ -0,0 +1,74 @@
+package com.tam.taskmanager.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fixed-size ring buffer of the most recent requests slower than the
+ * threshold, with their phase breakdown. Faster requests only cost one
+ * comparison; the lock is taken for slow ones only.
+ */
+@Component
+public class SlowRequestLog {
+
+    private final long thresholdNanos;
+    private final Map<String, Object>[] entries;
+    private int next;
+    private long recorded;
+
+    @SuppressWarnings("unchecked")
+    public SlowRequestLog(@Value("${app.timing.slow-request-threshold:500ms}") Duration threshold,
+            @Value("${app.timing.slow-request-capacity:50}") int capacity) {
+        this.thresholdNanos = threshold.toNanos();
+        this.entries = new Map[capacity];
+    }
+
+    void record(String method, String route, int status, long totalNanos, RequestTimings timings) {
+        if (totalNanos < thresholdNanos) {
+            return;
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("timestamp", Instant.now().toString());
+        entry.put("method", method);
+        entry.put("route", route);
+        entry.put("status", status);
+        entry.put("totalMs", Math.round(totalNanos / 10_000.0) / 100.0);
+        entry.put("phasesMs", timings.toMillisByPhase());
+        synchronized (this) {
+            entries[next] = entry;
+            next = (next + 1) % entries.length;
+            recorded++;
+        }
+    }
+
+    /**
+     * Buffered slow requests, slowest first.
+     */
+    public synchronized List<Map<String, Object>> slowest() {
+        List<Map<String, Object>> result = new ArrayList<>(entries.length);
+        for (Map<String, Object> entry : entries) {
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+        result.sort(Comparator.comparingDouble((Map<String, Object> entry) -> (Double) entry.get("totalMs"))
+                .reversed());
+        return result;
+    }
+
+    public synchronized long recordedCount() {
+        return recorded;
+    }
+
+    public long thresholdMillis() {
+        return thresholdNanos / 1_000_000;
+    }
+}
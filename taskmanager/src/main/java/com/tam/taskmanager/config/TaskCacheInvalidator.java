@@ -0,0 +1,91 @@
+package com.tam.taskmanager.config;
+
+import java.util.Collection;
+
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.tam.taskmanager.entity.TaskEntity;
+import com.tam.taskmanager.service.TaskListCache;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Invalidates the cached tasks of one user: the user's TaskListCache pages
+ * and the TaskEntity entries of the written tasks. Called on every write
+ * path, including the ones Hibernate does not see (native UPDATE ...
+ * RETURNING, COPY imports, the write pipeline), and for writes of other
+ * instances (announced by TaskEventListener). Hibernate's own entity
+ * writes and JPQL deletes keep the TaskEntity region up to date by
+ * themselves, so for those only the lists are invalidated.
+ */
+@Component
+public class TaskCacheInvalidator {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TaskListCache taskListCache;
+
+    private final SessionFactoryImplementor sessionFactory;
+
+    public TaskCacheInvalidator(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    /**
+     * For a native write of one task in the current transaction: locks the
+     * task's cache entry the way Hibernate locks an entity it updates, so
+     * readers are kept off it (and cannot put back what they loaded before
+     * the commit) until the transaction completes, and evicts the user's
+     * lists after it.
+     */
+    public void invalidateInTransaction(Long userId, Long taskId) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(TaskEntity.class);
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        Object key = cacheAccess.generateCacheKey(taskId, persister, sessionFactory, null);
+        SoftLock lock = cacheAccess.lockItem(session, key, null);
+        session.getActionQueue().registerProcess(
+                (success, completedSession) -> cacheAccess.unlockItem(completedSession, key, lock));
+        invalidateListsAfterCommit(userId);
+    }
+
+    /**
+     * For a write through Hibernate entities or JPQL in the current
+     * transaction (or one that already committed when none is active).
+     */
+    public void invalidateListsAfterCommit(Long userId) {
+        taskListCache.evictAfterCommit(userId);
+    }
+
+    /**
+     * For a write of the user that already committed elsewhere. taskIds are
+     * the written tasks; null when unknown, which evicts every cached task.
+     * New tasks need none: they cannot be cached yet.
+     */
+    public void invalidateCommitted(Long userId, Collection<Long> taskIds) {
+        if (taskIds == null) {
+            sessionFactory.getCache().evictEntityData(TaskEntity.class);
+        } else {
+            taskIds.forEach(taskId -> sessionFactory.getCache().evictEntityData(TaskEntity.class, taskId));
+        }
+        taskListCache.evict(userId);
+    }
+
+    /**
+     * For committed writes of unknown users (archival, missed announcements).
+     */
+    public void invalidateCommitted() {
+        sessionFactory.getCache().evictEntityData(TaskEntity.class);
+        taskListCache.evictAll();
+    }
+}
@@ -0,0 +1,154 @@
+package com.tam.taskmanager.config;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.tam.taskmanager.repository.TaskEventRepository;
+import com.tam.taskmanager.service.TaskEventBroker;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the one LISTEN connection of this instance on the task_events
+ * channel and hands the notifications to the TaskEventBroker. The
+ * connection is opened outside the Hikari pool: it stays checked out for
+ * the lifetime of the application and must not run pool init SQL or be
+ * recycled by max-lifetime. After a reconnect the broker catches up from
+ * the task_event log, so notifications sent in between are not lost.
+ * Writes of other instances (and of other clients of the database) also
+ * invalidate the cached tasks of their user; writes of this instance were
+ * invalidated on their write path already and are only handed on.
+ */
+@Slf4j
+@Component
+public class TaskEventListener implements SmartLifecycle {
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    @Autowired
+    private TaskEventBroker taskEventBroker;
+
+    @Autowired
+    private TaskCacheInvalidator taskCacheInvalidator;
+
+    @Autowired
+    private InstanceIdentity instanceIdentity;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    @Value("${app.events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.events.reconnect-delay:5s}")
+    private Duration reconnectDelay;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Task events listener disabled");
+            return;
+        }
+        running = true;
+        thread = Thread.ofPlatform().daemon().name("task-events-listener").start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + TaskEventRepository.CHANNEL);
+                }
+                log.info("Listening for task events");
+                if (reconnect) {
+                    taskCacheInvalidator.invalidateCommitted();
+                    taskEventBroker.catchUpAll();
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Task events listener connection lost, reconnecting in {}: {}", reconnectDelay,
+                        e.getMessage());
+                reconnect = true;
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Payload "userId:lastEventId:taskIds:origin" (09.create_task_event.sql)
+    private void dispatch(String payload) {
+        try {
+            String[] fields = payload.split(":", 4);
+            long userId = Long.parseLong(fields[0]);
+            long lastId = Long.parseLong(fields[1]);
+            if (!instanceIdentity.getApplicationName().equals(fields[3])) {
+                taskCacheInvalidator.invalidateCommitted(userId, parseTaskIds(fields[2]));
+            }
+            taskEventBroker.onNotification(userId, lastId);
+        } catch (RuntimeException e) {
+            log.error("Error dispatching task event notification: {}: {}", payload, e.getMessage());
+        }
+    }
+
+    // Empty when the statement wrote too many tasks to list: unknown
+    private static List<Long> parseTaskIds(String taskIds) {
+        if (taskIds.isEmpty()) {
+            return null;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (String taskId : taskIds.split(",")) {
+            ids.add(Long.parseLong(taskId));
+        }
+        return ids;
+    }
+}
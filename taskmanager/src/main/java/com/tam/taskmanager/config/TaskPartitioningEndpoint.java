@@ -0,0 +1,44 @@
+package com.tam.taskmanager.config;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import com.tam.taskmanager.service.TaskPartitionBackfillService;
+
+/**
+ * Actuator endpoint driving the task partition backfill: GET shows the
+ * progress, POST starts (or resumes) it, DELETE stops it after the current batch.
+ * request example: POST http://localhost:8084/task-management/actuator/taskpartitioning
+ */
+@Component
+@Endpoint(id = "taskpartitioning")
+public class TaskPartitioningEndpoint {
+
+    @Autowired
+    private TaskPartitionBackfillService taskPartitionBackfillService;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return taskPartitionBackfillService.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start() {
+        boolean started = taskPartitionBackfillService.start();
+        Map<String, Object> status = taskPartitionBackfillService.status();
+        status.put("started", started);
+        return status;
+    }
+
+    @DeleteOperation
+    public Map<String, Object> stop() {
+        taskPartitionBackfillService.stop();
+        return taskPartitionBackfillService.status();
+    }
+}
@@ -0,0 +1,107 @@
+package com.tam.taskmanager.config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.tam.taskmanager.dto.task.TaskDTO;
+
+/**
+ * Writes a TaskDTO or a List&lt;TaskDTO&gt; as protobuf (proto/task.proto)
+ * for Accept: application/x-protobuf. Write only, and only for tasks:
+ * other responses asked for as protobuf get 406.
+ */
+class TaskProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    static final MediaType APPLICATION_PROTOBUF = MediaType.parseMediaType("application/x-protobuf");
+
+    private static final String SCHEMA = "proto/task.proto";
+
+    // Root message of a list response
+    record TaskList(List<TaskDTO> tasks) {
+    }
+
+    private final ObjectWriter taskWriter;
+    private final ObjectWriter taskListWriter;
+
+    TaskProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+        NativeProtobufSchema schema;
+        try {
+            schema = ProtobufSchemaLoader.std.loadNative(new ClassPathResource(SCHEMA).getURL());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load " + SCHEMA, e);
+        }
+        ProtobufMapper mapper = new ProtobufMapper();
+        this.taskWriter = mapper.writer(schema.forType("TaskDTO"));
+        this.taskListWriter = mapper.writer(schema.forType("TaskList"));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TaskDTO.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return canWrite(mediaType) && (TaskDTO.class.isAssignableFrom(clazz) || isTaskList(type));
+    }
+
+    // Media type negotiation asks with the raw class (ArrayList), which supports() rejects
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return getSupportedMediaTypes();
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(@Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        if (object instanceof TaskDTO task) {
+            taskWriter.writeValue(outputMessage.getBody(), task);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<TaskDTO> tasks = (List<TaskDTO>) object;
+        taskListWriter.writeValue(outputMessage.getBody(), new TaskList(tasks));
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    private static boolean isTaskList(@Nullable Type type) {
+        return type instanceof ParameterizedType parameterized
+                && parameterized.getRawType() instanceof Class<?> raw && List.class.isAssignableFrom(raw)
+                && parameterized.getActualTypeArguments()[0] == TaskDTO.class;
+    }
+}
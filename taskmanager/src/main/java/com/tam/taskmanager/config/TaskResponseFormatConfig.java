@@ -0,0 +1,61 @@
+package com.tam.taskmanager.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Binary alternatives to JSON for the task responses, picked by the Accept
+ * header: Smile (application/x-jackson-smile), CBOR (application/cbor) and
+ * protobuf (application/x-protobuf, task lists and single tasks only).
+ * Smile and CBOR use the application's Jackson settings and write enums as
+ * ordinals, like the protobuf schema. JSON stays the default for any other
+ * Accept. Response compression is server.compression.*.
+ */
+@Slf4j
+@Configuration
+public class TaskResponseFormatConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    public TaskResponseFormatConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    /**
+     * Mapper for a binary format: the given builder's settings, enums as
+     * ordinals. Reading accepts ordinals and names.
+     */
+    static ObjectMapper binaryObjectMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        return builder.factory(factory)
+                .featuresToEnable(SerializationFeature.WRITE_ENUMS_USING_INDEX)
+                .build();
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Replaces the Smile and CBOR converters Spring MVC registers by default (enum names)
+        converters.removeIf(converter -> converter instanceof MappingJackson2SmileHttpMessageConverter
+                || converter instanceof MappingJackson2CborHttpMessageConverter);
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                binaryObjectMapper(objectMapperBuilder.getObject(), new SmileFactory())));
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                binaryObjectMapper(objectMapperBuilder.getObject(), new CBORFactory())));
+        converters.add(new TaskProtobufHttpMessageConverter());
+        log.debug("Registered Smile, CBOR and protobuf task response formats");
+    }
+}
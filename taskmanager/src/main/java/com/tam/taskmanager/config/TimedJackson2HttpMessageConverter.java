@@ -0,0 +1,50 @@
+package com.tam.taskmanager.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tam.taskmanager.enums.TimingPhaseEnum;
+
+/**
+ * JSON converter that serializes into a buffer before touching the
+ * response, so the serialization time is known while the Server-Timing
+ * header can still be set. Outside a timed request it writes directly.
+ */
+class TimedJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    TimedJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage)
+            throws IOException {
+        if (RequestTimings.current() == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        long start = System.nanoTime();
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return buffer;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        RequestTimings.record(TimingPhaseEnum.SERIALIZE, start);
+        buffer.writeTo(outputMessage.getBody());
+    }
+}
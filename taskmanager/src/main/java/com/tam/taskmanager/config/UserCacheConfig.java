@@ -0,0 +1,45 @@
+package com.tam.taskmanager.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Configuration
+public class UserCacheConfig {
+
+    @Value("${app.user-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${app.user-cache.expire-after-access:30m}")
+    private Duration expireAfterAccess;
+
+    /**
+     * Cache from keycloak subject ("sub" claim) to task_user.id.
+     * The mapping never changes once a user row exists, so entries only leave
+     * the cache through size or idle eviction.
+     * Hit/miss/eviction counters are published as cache.* meters tagged
+     * cache=userIdCache.
+     */
+    @Bean
+    public Cache<String, Long> userIdCache(MeterRegistry meterRegistry) {
+        log.info("Configuring user id cache with maximumSize={}, expireAfterAccess={}", maximumSize,
+                expireAfterAccess);
+        Cache<String, Long> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "userIdCache");
+    }
+}
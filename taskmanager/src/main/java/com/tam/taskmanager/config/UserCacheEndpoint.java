@@ -0,0 +1,39 @@
+package com.tam.taskmanager.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Actuator endpoint exposing the user id cache statistics.
+ * request example: http://localhost:8084/task-management/actuator/usercache
+ */
+@Component
+@Endpoint(id = "usercache")
+public class UserCacheEndpoint {
+
+    @Autowired
+    private Cache<String, Long> userIdCache;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        CacheStats stats = userIdCache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", userIdCache.estimatedSize());
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("loadSuccessCount", stats.loadSuccessCount());
+        result.put("loadFailureCount", stats.loadFailureCount());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("averageLoadPenaltyNanos", stats.averageLoadPenalty());
+        return result;
+    }
+}
@@ -0,0 +1,103 @@
+package com.tam.taskmanager.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tam.taskmanager.config.AdmissionControlFilter;
+import com.tam.taskmanager.dto.task.TaskDTO;
+import com.tam.taskmanager.service.ReactiveTaskService;
+import com.tam.taskmanager.service.UserService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Streaming variants of GET /tasks and GET /tasks/search, selected with
+ * Accept: application/x-ndjson (other clients keep getting the JSON array
+ * from TaskManagerController). One task per line is written as soon as its
+ * row arrives; the next rows are only requested from Postgres once the
+ * client has taken the previous ones.
+ * Only registered when app.reactive.enabled=true.
+ */
+@RestController
+@RequestMapping("/api/v1")
+@Slf4j
+@PreAuthorize("@securityService.hasAccessToTasks(authentication)")
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveTaskController {
+
+    @Autowired
+    private ReactiveTaskService reactiveTaskService;
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * This endpoint streams the tasks of the user.
+     * Takes the same filters and paging as GET /tasks (no cursor).
+     *
+     * @return ResponseEntity streaming one task per line
+     *         request example: http://localhost:8084/task-management/api/v1/tasks?pageSize=10000
+     *         Accept: application/x-ndjson
+     */
+    @GetMapping(value = "/tasks", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<TaskDTO>> streamAllTasks(
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(defaultValue = "0") int pageNumber,
+            Authentication authentication,
+            HttpServletRequest request) {
+        try {
+            log.info("Streaming all tasks");
+            Flux<TaskDTO> tasks = reactiveTaskService.getAllTasks(priority, status, pageSize, pageNumber,
+                    userService.getUserId(authentication));
+            return toStreamResponse(tasks, request);
+        } catch (Exception e) {
+            log.error("Error streaming tasks: {}", e.getMessage());
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    /**
+     * This endpoint streams the tasks matching a search.
+     * Takes the same parameters as GET /tasks/search (no cursor).
+     *
+     * @return ResponseEntity streaming one task per line
+     *         request example: http://localhost:8084/task-management/api/v1/tasks/search?search=report
+     *         Accept: application/x-ndjson
+     */
+    @GetMapping(value = "/tasks/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<TaskDTO>> streamSearchTasks(
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "10") int pageSize,
+            @RequestParam(defaultValue = "0") int pageNumber,
+            Authentication authentication,
+            HttpServletRequest request) {
+        try {
+            log.info("Streaming task search");
+            Flux<TaskDTO> tasks = reactiveTaskService.searchTasks(search, pageSize, pageNumber,
+                    userService.getUserId(authentication));
+            return toStreamResponse(tasks, request);
+        } catch (Exception e) {
+            log.error("Error streaming task search: {}", e.getMessage());
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    private static ResponseEntity<Flux<TaskDTO>> toStreamResponse(Flux<TaskDTO> tasks, HttpServletRequest request) {
+        // The stream runs on the R2DBC pool, so it does not need to keep a JDBC admission permit
+        request.setAttribute(AdmissionControlFilter.RELEASE_ON_ASYNC_ATTRIBUTE, Boolean.TRUE);
+        // The status is already sent once rows flow, a failing query can only end the stream early
+        return ResponseEntity.ok(tasks.doOnError(e -> log.error("Error while streaming tasks: {}", e.getMessage())));
+    }
+}
@@ -1,24 +1,52 @@
 package com.tam.taskmanager.controller;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.security.core.Authentication;
+import com.tam.taskmanager.config.AdmissionControlFilter;
+import com.tam.taskmanager.dto.task.BulkTaskOperationDTO;
+import com.tam.taskmanager.dto.task.BulkTaskResultDTO;
+import com.tam.taskmanager.dto.task.TaskChangesDTO;
 import com.tam.taskmanager.dto.task.TaskDTO;
+import com.tam.taskmanager.dto.task.TaskImportResultDTO;
+import com.tam.taskmanager.dto.task.TaskSliceDTO;
+import com.tam.taskmanager.dto.task.TaskStatsDTO;
+import com.tam.taskmanager.enums.ExportFormatEnum;
 import com.tam.taskmanager.service.SecurityService;
+import com.tam.taskmanager.service.TaskChangeService;
+import com.tam.taskmanager.service.TaskEventBroker;
+import com.tam.taskmanager.service.TaskExportService;
+import com.tam.taskmanager.service.TaskImportService;
 import com.tam.taskmanager.service.TaskService;
+import com.tam.taskmanager.service.TaskStatsService;
 import com.tam.taskmanager.service.UserService;
 
 import jakarta.annotation.security.RolesAllowed;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 
 @RestController
@@ -27,12 +55,31 @@ import lombok.extern.slf4j.Slf4j;
 @PreAuthorize("@securityService.hasAccessToTasks(authentication)")
 public class TaskManagerController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final CacheControl COLLECTION_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private TaskService taskService;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskEventBroker taskEventBroker;
+
+    @Autowired
+    private TaskChangeService taskChangeService;
+
     /**
      * This endpoint creates a new task in the task manager.
      * 
@@ -54,17 +101,100 @@ public class TaskManagerController {
             log.info("user ID1: {}", userId);
             Long taskId = taskService.createTask(userId, title, description, priority, status);
             return ResponseEntity.ok(taskId);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid task: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(null);
+        } catch (RejectedExecutionException e) {
+            // Write pipeline queue full
+            log.warn("Task creation rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(null);
         } catch (Exception e) {
             log.error("Error creating task: {}", e.getMessage());
             return ResponseEntity.status(500).body(null);
         }
     }
 
+    /**
+     * This endpoint applies a batch of create/update/delete operations in a
+     * single transaction. All operations are validated first; if any of them
+     * is invalid nothing is written and the errors are returned with 400.
+     * 
+     * @param operations the operations to apply, in any order
+     * @return ResponseEntity with created task ids and update/delete counts
+     *         request example: POST http://localhost:8084/task-management/api/v1/tasks/bulk
+     *         [{"op":"CREATE","title":"t","description":"d","priority":"LOW","status":"PENDING"},
+     *          {"op":"UPDATE","taskId":1,"title":"t","description":"d","priority":"HIGH","status":"COMPLETED"},
+     *          {"op":"DELETE","taskId":2}]
+     */
+    @PostMapping("/tasks/bulk")
+    public ResponseEntity<BulkTaskResultDTO> bulkTasks(@RequestBody List<BulkTaskOperationDTO> operations,
+            Authentication authentication) {
+        try {
+            final Long userId = userService.getUserId(authentication);
+            log.info("Applying {} bulk operations", operations.size());
+            BulkTaskResultDTO result = taskService.bulkTasks(userId, operations);
+            if (result.hasErrors()) {
+                return ResponseEntity.badRequest().body(result);
+            }
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            log.error("Error applying bulk operations: {}", e.getMessage());
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    /**
+     * This endpoint imports tasks from an NDJSON or CSV upload.
+     * The body is parsed while it is received and stored in chunks with
+     * COPY; each chunk commits on its own, so the report lists per chunk
+     * how many rows were imported and why the others were rejected.
+     * 
+     * @param format ndjson (default, one JSON task per line) or csv (with a
+     *               title,description,priority,status header)
+     * @param body   the raw request body
+     * @return ResponseEntity with the import report
+     *         request example: POST http://localhost:8084/task-management/api/v1/tasks/import?format=csv
+     *         title,description,priority,status
+     *         Write report,Quarterly numbers,HIGH,PENDING
+     */
+    @PostMapping("/tasks/import")
+    public ResponseEntity<TaskImportResultDTO> importTasks(
+            @RequestParam(defaultValue = "ndjson") String format,
+            InputStream body,
+            Authentication authentication) {
+        ExportFormatEnum importFormat = ExportFormatEnum.fromName(format);
+        if (importFormat == null) {
+            log.error("Invalid import format: {}", format);
+            return ResponseEntity.badRequest().body(null);
+        }
+        try {
+            final Long userId = userService.getUserId(authentication);
+            log.info("Importing tasks as {}", importFormat);
+            return ResponseEntity.ok(taskImportService.importTasks(userId, importFormat, body));
+        } catch (Exception e) {
+            log.error("Error importing tasks: {}", e.getMessage());
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
     /**
      * This endpoint retrieves all tasks from the task manager.
+     * Passing the cursor parameter (empty for the first slice) switches to
+     * keyset pagination: pageNumber is ignored and the token for the next
+     * slice is returned in the X-Next-Cursor header (absent on the last slice).
+     * includeArchived=true also returns the archived tasks, which are
+     * otherwise left out.
+     * The response carries a weak ETag derived from the version of the
+     * user's tasks; sending it back in If-None-Match gets 304 Not Modified,
+     * without reading the tasks, until one of the user's tasks changes.
      * 
      * @return ResponseEntity with list of tasks
      *         request example: http://localhost:8084/task-management/api/v1/tasks
+     *         cursor example: http://localhost:8084/task-management/api/v1/tasks?cursor=&pageSize=50
+     *         archive example: http://localhost:8084/task-management/api/v1/tasks?status=COMPLETED&includeArchived=true
+     *         revalidation example: GET http://localhost:8084/task-management/api/v1/tasks
+     *         If-None-Match: W/"4211-1f3a9c2e"
      */
     @GetMapping("/tasks")
     public ResponseEntity<List<TaskDTO>> getAllTasks(
@@ -72,13 +202,37 @@ public class TaskManagerController {
             @RequestParam(required = false) String status,
             @RequestParam(defaultValue = "10") int pageSize,
             @RequestParam(defaultValue = "0") int pageNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request,
             Authentication authentication) {
         try {
             log.info("Fetching all tasks");
-            List<TaskDTO> tasks = taskService.getAllTasks(priority, status, pageSize, pageNumber,
-                    userService.getUserId(authentication)); // Default page size
-            // is 10
-            return ResponseEntity.ok(tasks);
+            final Long userId = userService.getUserId(authentication);
+            if (ifNoneMatch != null) {
+                String eTag = toCollectionETag(taskService.getCollectionVersion(userId), userId, request);
+                if (matchesIfNoneMatch(ifNoneMatch, eTag)) {
+                    return toNotModifiedResponse(eTag);
+                }
+            }
+            if (includeArchived) {
+                if (cursor != null) {
+                    return toSliceResponse(
+                            taskService.getAllTasksWithArchiveByCursor(priority, status, pageSize, cursor, userId),
+                            userId, request);
+                }
+                return toSliceResponse(
+                        taskService.getAllTasksWithArchive(priority, status, pageSize, pageNumber, userId), userId,
+                        request);
+            }
+            if (cursor != null) {
+                return toSliceResponse(taskService.getAllTasksByCursor(priority, status, pageSize, cursor, userId),
+                        userId, request);
+            }
+            TaskSliceDTO tasks = taskService.getAllTasks(priority, status, pageSize, pageNumber, userId); // Default
+            // page size is 10
+            return toSliceResponse(tasks, userId, request);
         } catch (Exception e) {
             log.error("Error fetching tasks: {}", e.getMessage());
             return ResponseEntity.status(500).body(null);
@@ -87,23 +241,48 @@ public class TaskManagerController {
     }
 
         /**
-     * This endpoint retrieves all tasks from the task manager.
+     * This endpoint searches tasks by title and description.
+     * Results are ordered by relevance (full-text rank plus title similarity).
+     * Supports the same cursor, includeArchived and If-None-Match handling
+     * as GET /tasks.
      * 
      * @return ResponseEntity with list of tasks
-     *         request example: http://localhost:8084/task-management/api/v1/tasks
+     *         request example: http://localhost:8084/task-management/api/v1/tasks/search?search=report
      */
     @GetMapping("/tasks/search")
     public ResponseEntity<List<TaskDTO>> searchTasks(
             @RequestParam(required = false) String search,
             @RequestParam(defaultValue = "10") int pageSize,
             @RequestParam(defaultValue = "0") int pageNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletRequest request,
             Authentication authentication) {
         try {
             log.info("Fetching all tasks");
-            List<TaskDTO> tasks = taskService.searchTasks(search, pageSize, pageNumber,
-                    userService.getUserId(authentication)); // Default page size
-            // is 10
-            return ResponseEntity.ok(tasks);
+            final Long userId = userService.getUserId(authentication);
+            if (ifNoneMatch != null) {
+                String eTag = toCollectionETag(taskService.getCollectionVersion(userId), userId, request);
+                if (matchesIfNoneMatch(ifNoneMatch, eTag)) {
+                    return toNotModifiedResponse(eTag);
+                }
+            }
+            if (includeArchived) {
+                if (cursor != null) {
+                    return toSliceResponse(taskService.searchTasksWithArchiveByCursor(search, pageSize, cursor,
+                            userId), userId, request);
+                }
+                return toSliceResponse(taskService.searchTasksWithArchive(search, pageSize, pageNumber, userId),
+                        userId, request);
+            }
+            if (cursor != null) {
+                return toSliceResponse(taskService.searchTasksByCursor(search, pageSize, cursor, userId), userId,
+                        request);
+            }
+            TaskSliceDTO tasks = taskService.searchTasks(search, pageSize, pageNumber, userId); // Default page
+            // size is 10
+            return toSliceResponse(tasks, userId, request);
         } catch (Exception e) {
             log.error("Error fetching tasks: {}", e.getMessage());
             return ResponseEntity.status(500).body(null);
@@ -111,15 +290,133 @@ public class TaskManagerController {
 
     }
 
+    /**
+     * This endpoint returns the task counts of the user by status and
+     * priority. The counts are maintained on every write, so this is a
+     * single indexed read however many tasks the user has.
+     * 
+     * @return ResponseEntity with total, per status, per priority and per
+     *         status and priority counts
+     *         request example: http://localhost:8084/task-management/api/v1/tasks/stats
+     */
+    @GetMapping("/tasks/stats")
+    public ResponseEntity<TaskStatsDTO> getTaskStats(Authentication authentication) {
+        try {
+            log.info("Fetching task stats");
+            return ResponseEntity.ok(taskStatsService.getStats(userService.getUserId(authentication)));
+        } catch (Exception e) {
+            log.error("Error fetching task stats: {}", e.getMessage());
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    /**
+     * This endpoint returns the tasks changed since a point of a previous
+     * sync, for clients keeping a local copy. Start with since=0 (every
+     * task), then pass the returned nextSince; apply deleted before changed
+     * and repeat while hasMore. reset tells the client to drop its copy
+     * first.
+     * 
+     * @param since    the nextSince of the previous response, 0 for all tasks
+     * @param pageSize the maximum number of changes returned
+     * @return ResponseEntity with changed tasks, deleted task ids and nextSince
+     *         request example: http://localhost:8084/task-management/api/v1/tasks/changes?since=0&pageSize=500
+     */
+    @GetMapping("/tasks/changes")
+    public ResponseEntity<TaskChangesDTO> getTaskChanges(@RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int pageSize, Authentication authentication) {
+        try {
+            log.info("Fetching task changes since {}", since);
+            return ResponseEntity.ok(taskChangeService.getChanges(userService.getUserId(authentication), since,
+                    pageSize));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid task changes request: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            log.error("Error fetching task changes: {}", e.getMessage());
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    /**
+     * This endpoint streams the task changes of the user as server-sent
+     * events: CREATED and UPDATED with the current task, DELETED with the
+     * task id, and RESYNC when the client has to refetch its tasks. A
+     * reconnecting client sends the id of the last event it received
+     * (Last-Event-ID, set by EventSource, or lastEventId) and gets the
+     * events it missed first.
+     * 
+     * @param lastEventId the id of the last event received, if resuming
+     * @return SseEmitter sending the events of the user
+     *         request example: http://localhost:8084/task-management/api/v1/tasks/events?lastEventId=42
+     */
+    @GetMapping(value = "/tasks/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getTaskEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId, Authentication authentication,
+            HttpServletRequest request) {
+        if (!taskEventBroker.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            log.info("Subscribing to task events");
+            SseEmitter emitter = taskEventBroker.subscribe(userService.getUserId(authentication),
+                    lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+            // Events are sent from the broker's threads without a JDBC connection
+            request.setAttribute(AdmissionControlFilter.RELEASE_ON_ASYNC_ATTRIBUTE, Boolean.TRUE);
+            return ResponseEntity.ok(emitter);
+        } catch (Exception e) {
+            log.error("Error subscribing to task events: {}", e.getMessage());
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    /**
+     * This endpoint exports all tasks of the user in one response.
+     * Rows are written while they are read from the database, so the
+     * response starts immediately and memory use does not grow with the
+     * number of tasks.
+     * 
+     * @param format ndjson (default, one JSON task per line) or csv
+     * @return ResponseEntity streaming the tasks
+     *         request example: http://localhost:8084/task-management/api/v1/tasks/export?format=csv
+     */
+    @GetMapping("/tasks/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(defaultValue = "ndjson") String format,
+            Authentication authentication) {
+        ExportFormatEnum exportFormat = ExportFormatEnum.fromName(format);
+        if (exportFormat == null) {
+            log.error("Invalid export format: {}", format);
+            return ResponseEntity.badRequest().body(null);
+        }
+        try {
+            final Long userId = userService.getUserId(authentication);
+            log.info("Exporting tasks as {}", exportFormat);
+            StreamingResponseBody body = outputStream -> taskExportService.exportTasks(userId, exportFormat,
+                    outputStream);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"tasks." + exportFormat.getFileExtension() + "\"")
+                    .body(body);
+        } catch (Exception e) {
+            log.error("Error exporting tasks: {}", e.getMessage());
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
     /**
      * This endpoint updates a task by its ID.
+     * An optional If-Match header carrying the task ETag makes the update
+     * conditional; a stale ETag is rejected with 412.
      * 
      * @param taskId      the ID of the task to update
      * @param title       the new title of the task
      * @param description the new description of the task
      * @param priority    the new priority of the task
      * @param status      the new status of the task
-     * @return ResponseEntity with updated task
+     * @return ResponseEntity with updated task and its new ETag
      *         request example:
      *         http://localhost:8084/task-management/api/v1/tasks?taskId=1&title=New%20Title&description=New%20Description&priority=HIGH&status=IN_PROGRESS
      */
@@ -129,32 +426,67 @@ public class TaskManagerController {
             @RequestParam String description,
             @RequestParam String priority,
             @RequestParam String status,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication) {
         try {
             final Long userId = userService.getUserId(authentication);
             log.info("Updating task with id: {}", taskId);
-            TaskDTO updatedTask = taskService.updateTask(userId,taskId, title, description, priority, status);
-            return ResponseEntity.ok(updatedTask);
+            TaskDTO updatedTask = taskService.updateTask(userId, taskId, parseIfMatch(ifMatch), title, description,
+                    priority, status);
+            return ResponseEntity.ok().eTag(toETag(updatedTask.getVersion())).body(updatedTask);
         } catch (Exception e) {
             log.error("Error updating task: {}", e.getMessage());
-            return ResponseEntity.status(500).body(null);
+            return ResponseEntity.status(toWriteStatus(e)).body(null);
+        }
+    }
+
+    /**
+     * This endpoint updates only the supplied fields of a task.
+     * Supports the same If-Match header as PUT /tasks.
+     * 
+     * @param taskId the ID of the task to update
+     * @return ResponseEntity with updated task and its new ETag
+     *         request example:
+     *         PATCH http://localhost:8084/task-management/api/v1/tasks?taskId=1&status=COMPLETED
+     *         If-Match: "3"
+     */
+    @PatchMapping("/tasks")
+    public ResponseEntity<TaskDTO> patchTask(@RequestParam Long taskId,
+            @RequestParam(required = false) String title,
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String status,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication authentication) {
+        try {
+            final Long userId = userService.getUserId(authentication);
+            log.info("Patching task with id: {}", taskId);
+            TaskDTO updatedTask = taskService.patchTask(userId, taskId, parseIfMatch(ifMatch), title, description,
+                    priority, status);
+            return ResponseEntity.ok().eTag(toETag(updatedTask.getVersion())).body(updatedTask);
+        } catch (Exception e) {
+            log.error("Error patching task: {}", e.getMessage());
+            return ResponseEntity.status(toWriteStatus(e)).body(null);
         }
     }
 
 
     /**
      * This endpoint deletes a task by its ID.
+     * Supports the same If-Match header as PUT /tasks.
      * 
      * @param taskId the ID of the task to delete
      * @return ResponseEntity with deletion status
      *         request example: http://localhost:8084/task-management/api/v1/tasks?taskId=?taskId
      */
     @DeleteMapping("/tasks")
-    public ResponseEntity<String> deleteTask(@RequestParam Long taskId, Authentication authentication) {
-        final long userId = userService.getUserId(authentication);
+    public ResponseEntity<String> deleteTask(@RequestParam Long taskId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication authentication) {
         try {
+            final long userId = userService.getUserId(authentication);
             log.info("Deleting task with id: {}", taskId);
-            boolean isDeleted = taskService.deleteTask(userId, taskId);
+            boolean isDeleted = taskService.deleteTask(userId, taskId, parseIfMatch(ifMatch));
             if (isDeleted) {
                 return ResponseEntity.status(200).body("Task deleted successfully");
             } else {
@@ -162,9 +494,99 @@ public class TaskManagerController {
             }
         } catch (Exception e) {
             log.error("Error deleting task: {}", e.getMessage());
-            return ResponseEntity.status(500)
-                    .body("Error deleting taskId: " + taskId + ", \nwith error message:\n" + e.getMessage());
+            HttpStatus status = toWriteStatus(e);
+            if (status == HttpStatus.INTERNAL_SERVER_ERROR) {
+                return ResponseEntity.status(status)
+                        .body("Error deleting taskId: " + taskId + ", \nwith error message:\n" + e.getMessage());
+            }
+            return ResponseEntity.status(status).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the expected task version from an If-Match header.
+     * Returns null when the header is absent or "*" (no version check).
+     */
+    private static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match header: " + ifMatch);
+        }
+    }
+
+    private static String toETag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static HttpStatus toWriteStatus(Exception e) {
+        if (e instanceof OptimisticLockingFailureException) {
+            return HttpStatus.PRECONDITION_FAILED;
+        }
+        if (e instanceof EmptyResultDataAccessException) {
+            return HttpStatus.NOT_FOUND;
+        }
+        if (e instanceof IllegalArgumentException) {
+            return HttpStatus.BAD_REQUEST;
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+
+    /**
+     * Weak ETag of a task list or search response: the version of the
+     * user's tasks the body was read at (TaskSliceDTO), and a hash of what
+     * else shapes the body: the user, path, query string and Accept header.
+     */
+    private static String toCollectionETag(long version, Long userId, HttpServletRequest request) {
+        int variant = Objects.hash(userId, request.getRequestURI(), request.getQueryString(),
+                request.getHeader(HttpHeaders.ACCEPT));
+        return "W/\"" + version + "-" + Integer.toHexString(variant) + "\"";
+    }
+
+    /**
+     * Weak comparison with each tag of an If-None-Match header, or "*".
+     */
+    private static boolean matchesIfNoneMatch(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String opaqueTag = eTag.substring(2);
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity<List<TaskDTO>> toNotModifiedResponse(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag)
+                .cacheControl(COLLECTION_CACHE_CONTROL).varyBy(HttpHeaders.ACCEPT).build();
+    }
+
+    // private, no-cache: clients keep the list but revalidate it on every use; replaces the
+    // no-store Spring Security would otherwise add
+    private static ResponseEntity.BodyBuilder collectionResponse(String eTag) {
+        return ResponseEntity.ok().eTag(eTag).cacheControl(COLLECTION_CACHE_CONTROL).varyBy(HttpHeaders.ACCEPT);
+    }
+
+    private static ResponseEntity<List<TaskDTO>> toSliceResponse(TaskSliceDTO slice, Long userId,
+            HttpServletRequest request) {
+        ResponseEntity.BodyBuilder response = collectionResponse(toCollectionETag(slice.getVersion(), userId,
+                request));
+        if (slice.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, slice.getNextCursor());
         }
+        return response.body(slice.getTasks());
     }
 
 }
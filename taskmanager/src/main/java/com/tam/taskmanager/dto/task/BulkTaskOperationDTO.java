@@ -0,0 +1,19 @@
+package com.tam.taskmanager.dto.task;
+
+import com.tam.taskmanager.enums.BulkOperationEnum;
+
+import lombok.Data;
+
+/**
+ * One entry of a bulk request. CREATE uses every field except taskId,
+ * UPDATE uses all of them and DELETE only needs taskId.
+ */
+@Data
+public class BulkTaskOperationDTO {
+    private BulkOperationEnum op;
+    private Long taskId;
+    private String title;
+    private String description;
+    private String priority;
+    private String status;
+}
@@ -0,0 +1,21 @@
+package com.tam.taskmanager.dto.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Outcome of a bulk request. When errors is not empty nothing was written.
+ */
+@Data
+public class BulkTaskResultDTO {
+    private List<Long> createdIds = new ArrayList<>();
+    private int updated;
+    private int deleted;
+    private List<String> errors = new ArrayList<>();
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+}
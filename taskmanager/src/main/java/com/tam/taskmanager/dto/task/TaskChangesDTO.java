@@ -0,0 +1,24 @@
+package com.tam.taskmanager.dto.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * One page of task changes after a change sequence value. Clients apply
+ * deleted before changed, store nextSince and ask again while hasMore.
+ * With reset the client's copy is too old to be patched (deletes it never
+ * saw were purged): it drops all its tasks and applies this page, which
+ * then starts from the beginning.
+ */
+@Data
+public class TaskChangesDTO {
+    // Tasks created or updated, with their current state
+    private List<TaskDTO> changed = new ArrayList<>();
+    // Ids of tasks deleted or moved to another user
+    private List<Long> deleted = new ArrayList<>();
+    private long nextSince;
+    private boolean hasMore;
+    private boolean reset;
+}
@@ -0,0 +1,50 @@
+package com.tam.taskmanager.dto.task;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import lombok.Data;
+
+/**
+ * Continuation token for keyset pagination.
+ * Holds the (sort key, id) of the last row of a slice; the sort key is null
+ * when the slice is ordered by id alone. Clients only ever see the encoded
+ * form, which is an opaque base64url string.
+ */
+@Data
+public class TaskCursor {
+    private static final char SEPARATOR = '|';
+
+    private final String sortKey;
+    private final Long id;
+
+    public TaskCursor(String sortKey, Long id) {
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    public String encode() {
+        String raw = sortKey == null ? String.valueOf(id) : sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     * Returns null for a null or blank token, which means "first slice".
+     */
+    public static TaskCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                return new TaskCursor(null, Long.parseLong(raw));
+            }
+            return new TaskCursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
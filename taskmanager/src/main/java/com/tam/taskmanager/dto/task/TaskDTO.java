@@ -11,6 +11,8 @@ public class TaskDTO {
     private String description;
     private PriorityEnum priority;
     private StatusEnum status;
+    // Optimistic lock version, also sent as the ETag of single task responses
+    private Long version;
 
     public TaskDTO(Long id, String title, String description, PriorityEnum priority, StatusEnum status) {
         this.id = id;
@@ -19,4 +21,18 @@ public class TaskDTO {
         this.priority = priority;
         this.status = status;
     }
+
+    public TaskDTO(Long id, String title, String description, PriorityEnum priority, StatusEnum status,
+            Long version) {
+        this(id, title, description, priority, status);
+        this.version = version;
+    }
+
+    /**
+     * Constructor expression target for entity-free reads
+     * (TaskQueryRepositoryImpl): takes the priority/status column values as stored.
+     */
+    public TaskDTO(Long id, String title, String description, String priority, String status, Long version) {
+        this(id, title, description, PriorityEnum.fromName(priority), StatusEnum.fromName(status), version);
+    }
 }
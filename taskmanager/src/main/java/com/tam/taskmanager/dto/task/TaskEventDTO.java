@@ -0,0 +1,25 @@
+package com.tam.taskmanager.dto.task;
+
+import com.tam.taskmanager.enums.TaskEventTypeEnum;
+
+import lombok.Data;
+
+/**
+ * One entry of the task change feed. task holds the current state of the
+ * task for CREATED and UPDATED events; it is null for DELETED and RESYNC,
+ * and when the task was deleted again before the event was sent.
+ */
+@Data
+public class TaskEventDTO {
+    private long id;
+    private TaskEventTypeEnum type;
+    private Long taskId;
+    private TaskDTO task;
+
+    public TaskEventDTO(long id, TaskEventTypeEnum type, Long taskId, TaskDTO task) {
+        this.id = id;
+        this.type = type;
+        this.taskId = taskId;
+        this.task = task;
+    }
+}
@@ -0,0 +1,22 @@
+package com.tam.taskmanager.dto.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Outcome of one COPY chunk of an import. Rows are numbered from 1 in
+ * upload order (CSV header excluded). When copyError is set none of the
+ * chunk's valid rows were stored.
+ */
+@Data
+public class TaskImportChunkDTO {
+    private int chunk;
+    private long firstRow;
+    private long lastRow;
+    private int imported;
+    private int rejected;
+    private List<String> errors = new ArrayList<>();
+    private String copyError;
+}
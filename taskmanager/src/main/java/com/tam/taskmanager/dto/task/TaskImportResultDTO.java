@@ -0,0 +1,20 @@
+package com.tam.taskmanager.dto.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Outcome of an import. Chunks are committed independently, so imported
+ * rows stay stored even when later chunks fail. parseError is set when the
+ * upload was malformed and reading stopped early.
+ */
+@Data
+public class TaskImportResultDTO {
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private List<TaskImportChunkDTO> chunks = new ArrayList<>();
+    private String parseError;
+}
@@ -0,0 +1,15 @@
+package com.tam.taskmanager.dto.task;
+
+import lombok.Data;
+
+/**
+ * One task of an NDJSON or CSV import. Priority and status are validated
+ * case-insensitively against PriorityEnum and StatusEnum.
+ */
+@Data
+public class TaskImportRowDTO {
+    private String title;
+    private String description;
+    private String priority;
+    private String status;
+}
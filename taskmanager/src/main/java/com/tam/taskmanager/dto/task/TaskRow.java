@@ -0,0 +1,18 @@
+package com.tam.taskmanager.dto.task;
+
+/**
+ * Projection of a task row read by native SQL (search, RETURNING clauses).
+ */
+public interface TaskRow {
+    Long getId();
+
+    String getTitle();
+
+    String getDescription();
+
+    String getPriority();
+
+    String getStatus();
+
+    Long getVersion();
+}
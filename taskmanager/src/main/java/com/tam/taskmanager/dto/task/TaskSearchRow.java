@@ -0,0 +1,9 @@
+package com.tam.taskmanager.dto.task;
+
+/**
+ * Projection of a full-text search hit, including the relevance rank used
+ * for ordering and for the keyset cursor.
+ */
+public interface TaskSearchRow extends TaskRow {
+    Float getSearchRank();
+}
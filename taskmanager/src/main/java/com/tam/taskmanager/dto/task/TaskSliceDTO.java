@@ -0,0 +1,24 @@
+package com.tam.taskmanager.dto.task;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * One page of a task listing or search.
+ * nextCursor is null when there are no more tasks, and for offset pages.
+ * version is the version of the user's tasks (task_collection_version)
+ * read in the same transaction as the tasks, behind the response's ETag.
+ */
+@Data
+public class TaskSliceDTO {
+    private List<TaskDTO> tasks;
+    private String nextCursor;
+    private long version;
+
+    public TaskSliceDTO(List<TaskDTO> tasks, String nextCursor, long version) {
+        this.tasks = tasks;
+        this.nextCursor = nextCursor;
+        this.version = version;
+    }
+}
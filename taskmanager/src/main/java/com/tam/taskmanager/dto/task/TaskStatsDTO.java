@@ -0,0 +1,43 @@
+package com.tam.taskmanager.dto.task;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.tam.taskmanager.enums.PriorityEnum;
+import com.tam.taskmanager.enums.StatusEnum;
+
+import lombok.Data;
+
+/**
+ * Task counts of one user. Every status and priority is present, with 0
+ * when the user has no such tasks.
+ */
+@Data
+public class TaskStatsDTO {
+    private long total;
+    private Map<StatusEnum, Long> byStatus = new EnumMap<>(StatusEnum.class);
+    private Map<PriorityEnum, Long> byPriority = new EnumMap<>(PriorityEnum.class);
+    // status -> priority -> count
+    private Map<StatusEnum, Map<PriorityEnum, Long>> counts = new EnumMap<>(StatusEnum.class);
+
+    public TaskStatsDTO() {
+        for (StatusEnum status : StatusEnum.values()) {
+            byStatus.put(status, 0L);
+            Map<PriorityEnum, Long> byPriorityOfStatus = new EnumMap<>(PriorityEnum.class);
+            for (PriorityEnum priority : PriorityEnum.values()) {
+                byPriorityOfStatus.put(priority, 0L);
+            }
+            counts.put(status, byPriorityOfStatus);
+        }
+        for (PriorityEnum priority : PriorityEnum.values()) {
+            byPriority.put(priority, 0L);
+        }
+    }
+
+    public void add(StatusEnum status, PriorityEnum priority, long count) {
+        counts.get(status).merge(priority, count, Long::sum);
+        byStatus.merge(status, count, Long::sum);
+        byPriority.merge(priority, count, Long::sum);
+        total += count;
+    }
+}
@@ -1,5 +1,9 @@
 package com.tam.taskmanager.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.PartitionKey;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -8,15 +12,23 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Data;
 
 @Data
 @Entity
 @Table(name = "task")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = TaskEntity.CACHE_REGION)
 public class TaskEntity {
+    // Second-level cache region (HibernateCacheConfig)
+    public static final String CACHE_REGION = "task";
+
+    // Pooled sequence (06.update_task_id_sequence.sql) so inserts can be JDBC batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_id_seq")
+    @SequenceGenerator(name = "task_id_seq", sequenceName = "task_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @Column(name = "title", nullable = false)
@@ -27,8 +39,17 @@ public class TaskEntity {
     private String priority;
     @Column(name = "status", nullable = false)
     private String status;
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_user_id")
     private UserEntity assignedUser;
+    // Hash partition key of task (11.partition_task_table.sql), written through assignedUser.
+    // Hibernate adds it to the WHERE clause of entity UPDATEs and DELETEs, so they prune to
+    // one partition instead of probing the primary key of every partition
+    @PartitionKey
+    @Column(name = "assigned_user_id", insertable = false, updatable = false)
+    private Long assignedUserId;
 
 }
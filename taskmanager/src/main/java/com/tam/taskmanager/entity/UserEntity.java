@@ -3,6 +3,10 @@ package com.tam.taskmanager.entity;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.scheduling.config.Task;
 
 import jakarta.persistence.CascadeType;
@@ -19,7 +23,12 @@ import lombok.Data;
 @Data
 @Entity
 @Table(name = "task_user")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = UserEntity.CACHE_REGION)
+@NaturalIdCache(region = UserEntity.NATURAL_ID_CACHE_REGION)
 public class UserEntity {
+    // Second-level cache regions (HibernateCacheConfig)
+    public static final String CACHE_REGION = "task_user";
+    public static final String NATURAL_ID_CACHE_REGION = "task_user_natural_id";
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -28,8 +37,12 @@ public class UserEntity {
 
     @Column(name = "user_name", nullable = true, unique = true)
     private String userName;
+    // Never changes once the user exists; looked up through the natural id cache
+    @NaturalId
     @Column(name = "keycloak_user_id", nullable = false, unique = true)
     private String keycloakUserId;
+    // Loaded with WHERE assigned_user_id = ?, one task partition; the database cascades user
+    // deletes to the tasks the same way (fk_task_user ON DELETE CASCADE)
     @OneToMany(mappedBy = "assignedUser", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<TaskEntity> tasks = new ArrayList<>();
 }
\ No newline at end of file
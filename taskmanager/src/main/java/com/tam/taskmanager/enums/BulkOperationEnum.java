@@ -0,0 +1,7 @@
+package com.tam.taskmanager.enums;
+
+public enum BulkOperationEnum {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,37 @@
+package com.tam.taskmanager.enums;
+
+public enum ExportFormatEnum {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ExportFormatEnum(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Resolves the format query parameter, case-insensitively.
+     * Returns null for null or unknown names.
+     */
+    public static ExportFormatEnum fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        return switch (name.toUpperCase()) {
+            case "NDJSON" -> NDJSON;
+            case "CSV" -> CSV;
+            default -> null;
+        };
+    }
+}
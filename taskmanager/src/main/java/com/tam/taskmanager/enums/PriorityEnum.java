@@ -1,7 +1,43 @@
 package com.tam.taskmanager.enums;
 
+/**
+ * Ordinals are part of the binary response formats (TaskResponseFormatConfig,
+ * proto/task.proto): new constants go at the end.
+ */
 public enum PriorityEnum {
     LOW,
     MEDIUM,
-    HIGH
+    HIGH;
+
+    /**
+     * Resolves a stored (upper case) name with a switch instead of valueOf's
+     * reflective lookup. Returns null for null; an unknown name throws
+     * IllegalArgumentException (400 in the controllers).
+     */
+    public static PriorityEnum fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        PriorityEnum value = findByName(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Invalid priority value: " + name);
+        }
+        return value;
+    }
+
+    /**
+     * Like {@link #fromName}, but returns null for an unknown name too, for
+     * callers that check many values without building an exception each.
+     */
+    public static PriorityEnum findByName(String name) {
+        if (name == null) {
+            return null;
+        }
+        return switch (name) {
+            case "LOW" -> LOW;
+            case "MEDIUM" -> MEDIUM;
+            case "HIGH" -> HIGH;
+            default -> null;
+        };
+    }
 }
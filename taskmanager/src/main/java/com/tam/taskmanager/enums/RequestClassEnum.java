@@ -0,0 +1,24 @@
+package com.tam.taskmanager.enums;
+
+/**
+ * Endpoint classes with their own per-user rate limit (FairShareFilter),
+ * with their metric tag values.
+ * SEARCH: GET /tasks/search, the most expensive read.
+ * READ: every other GET.
+ * WRITE: every modifying request, including bulk and import.
+ */
+public enum RequestClassEnum {
+    READ("read"),
+    SEARCH("search"),
+    WRITE("write");
+
+    private final String metricName;
+
+    RequestClassEnum(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
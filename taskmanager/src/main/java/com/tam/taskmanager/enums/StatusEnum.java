@@ -1,7 +1,43 @@
 package com.tam.taskmanager.enums;
 
+/**
+ * Ordinals are part of the binary response formats (TaskResponseFormatConfig,
+ * proto/task.proto): new constants go at the end.
+ */
 public enum StatusEnum {
 	PENDING,
     IN_PROGRESS,
-    COMPLETED
+    COMPLETED;
+
+    /**
+     * Resolves a stored (upper case) name with a switch instead of valueOf's
+     * reflective lookup. Returns null for null; an unknown name throws
+     * IllegalArgumentException (400 in the controllers).
+     */
+    public static StatusEnum fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        StatusEnum value = findByName(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Invalid status value: " + name);
+        }
+        return value;
+    }
+
+    /**
+     * Like {@link #fromName}, but returns null for an unknown name too, for
+     * callers that check many values without building an exception each.
+     */
+    public static StatusEnum findByName(String name) {
+        if (name == null) {
+            return null;
+        }
+        return switch (name) {
+            case "PENDING" -> PENDING;
+            case "IN_PROGRESS" -> IN_PROGRESS;
+            case "COMPLETED" -> COMPLETED;
+            default -> null;
+        };
+    }
 }
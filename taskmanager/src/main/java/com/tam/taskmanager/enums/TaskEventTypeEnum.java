@@ -0,0 +1,30 @@
+package com.tam.taskmanager.enums;
+
+/**
+ * Event types of the task change feed, as stored in task_event.event_type
+ * (09.create_task_event.sql).
+ */
+public enum TaskEventTypeEnum {
+    CREATED,
+    UPDATED,
+    DELETED,
+    // Too many changes to list (bulk statement, purged history, slow client): refetch the tasks
+    RESYNC;
+
+    /**
+     * Resolves a stored (upper case) name without valueOf's exception on
+     * unknown input. Returns null for null or unknown names.
+     */
+    public static TaskEventTypeEnum fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        return switch (name) {
+            case "CREATED" -> CREATED;
+            case "UPDATED" -> UPDATED;
+            case "DELETED" -> DELETED;
+            case "RESYNC" -> RESYNC;
+            default -> null;
+        };
+    }
+}
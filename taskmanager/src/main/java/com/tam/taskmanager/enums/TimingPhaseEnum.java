@@ -0,0 +1,24 @@
+package com.tam.taskmanager.enums;
+
+/**
+ * Request phases reported in the Server-Timing header, with their metric
+ * names. Phases can overlap: a user id cache miss is counted in USER and,
+ * for its query, in DB as well.
+ */
+public enum TimingPhaseEnum {
+    JWT("jwt"),
+    AUTHZ("authz"),
+    USER("user"),
+    DB("db"),
+    SERIALIZE("ser");
+
+    private final String metricName;
+
+    TimingPhaseEnum(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
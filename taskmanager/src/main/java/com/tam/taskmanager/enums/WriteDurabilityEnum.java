@@ -0,0 +1,27 @@
+package com.tam.taskmanager.enums;
+
+/**
+ * When the write pipeline answers POST /tasks.
+ * ACCEPTED: as soon as the task is queued; a crash or a database outage
+ * before the next flush loses it.
+ * COMMITTED: after the flush that contains the task has committed.
+ */
+public enum WriteDurabilityEnum {
+    ACCEPTED,
+    COMMITTED;
+
+    /**
+     * Resolves the configured mode, case-insensitively.
+     * Returns null for null or unknown names.
+     */
+    public static WriteDurabilityEnum fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        return switch (name.toUpperCase()) {
+            case "ACCEPTED" -> ACCEPTED;
+            case "COMMITTED" -> COMMITTED;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,109 @@
+package com.tam.taskmanager.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.tam.taskmanager.dto.task.TaskDTO;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Task reads over R2DBC. Rows are fetched from Postgres in batches as the
+ * subscriber requests them, so a slow consumer slows the query down
+ * instead of buffering the whole result.
+ * The filters mirror TaskSpecs; every query is scoped to the user.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveTaskRepository {
+
+    // Rows per round trip, same as TaskRepository.STREAM_FETCH_SIZE
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_TASKS = "SELECT id, title, description, priority, status, version FROM task"
+            + " WHERE assigned_user_id = :userId";
+
+    // Same ordering as TaskService.KEYSET_SORT
+    private static final String PAGE = " ORDER BY id DESC LIMIT :limit OFFSET :offset";
+
+    @Autowired
+    private DatabaseClient reactiveDatabaseClient;
+
+    /**
+     * TaskSpecs.getTasksByPriorityAndStatusandUserId: priority and status
+     * match the stored value exactly, null skips the filter.
+     */
+    public Flux<TaskDTO> findTasks(Long userId, String priority, String status, int limit, long offset) {
+        StringBuilder sql = new StringBuilder(SELECT_TASKS);
+        if (priority != null) {
+            sql.append(" AND priority = :priority");
+        }
+        if (status != null) {
+            sql.append(" AND status = :status");
+        }
+        sql.append(PAGE);
+        DatabaseClient.GenericExecuteSpec spec = reactiveDatabaseClient.sql(sql.toString())
+                .bind("userId", userId)
+                .bind("limit", limit)
+                .bind("offset", offset);
+        if (priority != null) {
+            spec = spec.bind("priority", priority);
+        }
+        if (status != null) {
+            spec = spec.bind("status", status);
+        }
+        return fetch(spec);
+    }
+
+    /**
+     * TaskSpecs.getBySearchinput: case-sensitive substring match on title
+     * or description; a blank search lists every task of the user.
+     */
+    public Flux<TaskDTO> findTasksLike(Long userId, String search, int limit, long offset) {
+        if (search == null || search.trim().isEmpty()) {
+            return fetch(reactiveDatabaseClient.sql(SELECT_TASKS + PAGE)
+                    .bind("userId", userId)
+                    .bind("limit", limit)
+                    .bind("offset", offset));
+        }
+        return fetch(reactiveDatabaseClient.sql(SELECT_TASKS
+                + " AND (title LIKE :pattern OR description LIKE :pattern)" + PAGE)
+                .bind("userId", userId)
+                .bind("pattern", "%" + search + "%")
+                .bind("limit", limit)
+                .bind("offset", offset));
+    }
+
+    /**
+     * Relevance-ordered search, same statement as TaskRepository.searchByFullText.
+     */
+    public Flux<TaskDTO> searchByFullText(Long userId, String search, String pattern, int limit, long offset) {
+        return fetch(reactiveDatabaseClient.sql(TaskRepository.FULL_TEXT_SEARCH)
+                .bind("userId", userId)
+                .bind("search", search)
+                .bind("pattern", pattern)
+                .bind("cursorRank", Float.MAX_VALUE)
+                .bind("cursorId", Long.MAX_VALUE)
+                .bind("limit", limit)
+                .bind("offset", offset));
+    }
+
+    private static Flux<TaskDTO> fetch(DatabaseClient.GenericExecuteSpec spec) {
+        return spec.filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(ReactiveTaskRepository::toDto)
+                .all();
+    }
+
+    private static TaskDTO toDto(Readable row) {
+        return new TaskDTO(
+                row.get("id", Long.class),
+                row.get("title", String.class),
+                row.get("description", String.class),
+                row.get("priority", String.class),
+                row.get("status", String.class),
+                row.get("version", Long.class));
+    }
+}
@@ -0,0 +1,83 @@
+package com.tam.taskmanager.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Moves tasks from task to task_archive (12.create_task_archive.sql) for the
+ * archival job. The archived tasks are read back by the *WithArchive queries
+ * of TaskRepository.
+ */
+@Repository
+public class TaskArchiveRepository {
+
+    // SKIP LOCKED: tasks a user is writing right now, or another instance is archiving, are
+    // left for a later batch instead of waiting on them. The delete fires the task triggers
+    // like any other delete: stats are decremented, a DELETED event and a tombstone are written.
+    private static final String ARCHIVE_BATCH = """
+            WITH batch AS (
+                SELECT assigned_user_id, id
+                FROM task
+                WHERE status = ANY(CAST(? AS VARCHAR[]))
+                  AND updated_at < ?
+                  AND assigned_user_id IS NOT NULL
+                ORDER BY updated_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), moved AS (
+                DELETE FROM task t
+                USING batch b
+                WHERE t.assigned_user_id = b.assigned_user_id AND t.id = b.id
+                RETURNING t.id, t.title, t.description, t.priority, t.status, t.assigned_user_id, t.version,
+                          t.created_at, t.updated_at, t.change_seq
+            ), archived AS (
+                INSERT INTO task_archive (id, title, description, priority, status, assigned_user_id, version,
+                        created_at, updated_at, change_seq)
+                SELECT * FROM moved
+                RETURNING 1
+            )
+            SELECT count(*) FROM archived
+            """;
+
+    // One (status, updated_at) index probe per status instead of a scan for the ANY list
+    private static final String FIND_OLDEST_ELIGIBLE = """
+            SELECT min(o.updated_at)
+            FROM unnest(CAST(? AS VARCHAR[])) AS s(status)
+            CROSS JOIN LATERAL (
+                SELECT min(updated_at) AS updated_at
+                FROM task
+                WHERE status = s.status AND updated_at < ?
+            ) o
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Archives up to batchSize tasks with one of the statuses that were last
+     * updated before the cutoff, oldest first, in one short transaction.
+     * Returns the number of tasks archived.
+     */
+    @Transactional
+    public int archiveBatch(List<String> statuses, Instant cutoff, int batchSize) {
+        Integer archived = jdbcTemplate.queryForObject(ARCHIVE_BATCH, Integer.class,
+                statuses.toArray(new String[0]), Timestamp.from(cutoff), batchSize);
+        return archived == null ? 0 : archived;
+    }
+
+    /**
+     * The last update of the oldest task waiting to be archived, or null when
+     * none is left.
+     */
+    public Instant findOldestEligible(List<String> statuses, Instant cutoff) {
+        Timestamp oldest = jdbcTemplate.queryForObject(FIND_OLDEST_ELIGIBLE, Timestamp.class,
+                statuses.toArray(new String[0]), Timestamp.from(cutoff));
+        return oldest == null ? null : oldest.toInstant();
+    }
+}
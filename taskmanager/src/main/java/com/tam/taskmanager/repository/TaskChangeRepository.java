@@ -0,0 +1,87 @@
+package com.tam.taskmanager.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.tam.taskmanager.dto.task.TaskDTO;
+
+/**
+ * Reads task changes by change_seq for delta sync (10.add_task_change_seq.sql).
+ * change_seq and the tombstones are written by triggers on task.
+ */
+@Repository
+public class TaskChangeRepository {
+
+    /**
+     * A changed task (deleted false) or a tombstone (deleted true, task holds only the id).
+     */
+    public record TaskChange(long changeSeq, boolean deleted, TaskDTO task) {
+    }
+
+    // Both branches are range scans of their (user, change_seq) index, merged and cut to the page
+    private static final String FIND_CHANGES = """
+            SELECT * FROM (
+                (SELECT t.change_seq, FALSE AS deleted, t.id, t.title, t.description, t.priority, t.status, t.version
+                 FROM task t
+                 WHERE t.assigned_user_id = ? AND t.change_seq > ?
+                 ORDER BY t.change_seq
+                 LIMIT ?)
+                UNION ALL
+                (SELECT ts.change_seq, TRUE, ts.task_id, NULL, NULL, NULL, NULL, NULL
+                 FROM task_tombstone ts
+                 WHERE ts.user_id = ? AND ts.change_seq > ?
+                 ORDER BY ts.change_seq
+                 LIMIT ?)
+            ) c
+            ORDER BY c.change_seq
+            LIMIT ?
+            """;
+
+    private static final String FIND_HORIZON = "SELECT purged_change_seq FROM task_change_horizon WHERE id = 1";
+
+    // Purges and moves the horizon in one statement, so readers never see one without the other
+    private static final String PURGE_TOMBSTONES = """
+            WITH purged AS (
+                DELETE FROM task_tombstone WHERE deleted_at < ? RETURNING change_seq
+            )
+            UPDATE task_change_horizon
+            SET purged_change_seq = GREATEST(purged_change_seq, (SELECT max(change_seq) FROM purged))
+            WHERE id = 1
+            RETURNING (SELECT count(*) FROM purged)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Changes of a user with change_seq > since, oldest first.
+     */
+    public List<TaskChange> findChanges(long userId, long since, int limit) {
+        return jdbcTemplate.query(FIND_CHANGES, (rs, rowNum) -> {
+            boolean deleted = rs.getBoolean("deleted");
+            TaskDTO task = deleted ? new TaskDTO(rs.getLong("id"), null, null, (String) null, null, null)
+                    : new TaskDTO(rs.getLong("id"), rs.getString("title"), rs.getString("description"),
+                            rs.getString("priority"), rs.getString("status"), rs.getLong("version"));
+            return new TaskChange(rs.getLong("change_seq"), deleted, task);
+        }, userId, since, limit, userId, since, limit, limit);
+    }
+
+    /**
+     * Highest change_seq whose tombstone was purged; a client synced
+     * before it cannot be brought up to date by a delta.
+     */
+    public long findPurgedChangeSeq() {
+        Long purged = jdbcTemplate.queryForObject(FIND_HORIZON, Long.class);
+        return purged != null ? purged : 0;
+    }
+
+    public long purgeTombstones(Instant cutoff) {
+        Long purged = jdbcTemplate.queryForObject(PURGE_TOMBSTONES, Long.class, Timestamp.from(cutoff));
+        return purged != null ? purged : 0;
+    }
+}
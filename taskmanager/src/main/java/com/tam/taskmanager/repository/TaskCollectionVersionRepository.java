@@ -0,0 +1,30 @@
+package com.tam.taskmanager.repository;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads the per-user task collection versions
+ * (13.create_task_collection_version.sql). The versions are written by
+ * triggers on task, never from Java.
+ */
+@Repository
+public class TaskCollectionVersionRepository {
+
+    private static final String FIND_VERSION = "SELECT version FROM task_collection_version WHERE user_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Version of the user's task collection, 0 for a user that never had a
+     * task. A primary key lookup that does not read task.
+     */
+    public long findVersion(long userId) {
+        List<Long> versions = jdbcTemplate.queryForList(FIND_VERSION, Long.class, userId);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+}
@@ -0,0 +1,85 @@
+package com.tam.taskmanager.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.tam.taskmanager.dto.task.TaskDTO;
+import com.tam.taskmanager.dto.task.TaskEventDTO;
+import com.tam.taskmanager.enums.TaskEventTypeEnum;
+
+/**
+ * Reads the task_event log written by the triggers of 09.create_task_event.sql.
+ */
+@Repository
+public class TaskEventRepository {
+
+    // NOTIFY channel of the triggers, payload "userId:lastEventId:taskIds:origin"
+    public static final String CHANNEL = "task_events";
+
+    // The task is joined in when sending, so a client gets its current state
+    private static final String FIND_AFTER = """
+            SELECT e.id, e.event_type, e.task_id, t.title, t.description, t.priority, t.status, t.version
+            FROM task_event e
+            LEFT JOIN task t ON t.id = e.task_id AND t.assigned_user_id = e.user_id
+            WHERE e.user_id = ? AND e.id > ? AND e.id <= ?
+            ORDER BY e.id
+            LIMIT ?
+            """;
+
+    private static final String FIND_LAST_ID = "SELECT COALESCE(max(id), 0) FROM task_event WHERE user_id = ?";
+
+    private static final String FIND_FIRST_ID = "SELECT min(id) FROM task_event";
+
+    private static final String DELETE_BEFORE = "DELETE FROM task_event WHERE created_at < ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Events of a user with afterId < id <= upToId, oldest first.
+     */
+    public List<TaskEventDTO> findAfter(long userId, long afterId, long upToId, int limit) {
+        return jdbcTemplate.query(FIND_AFTER, TaskEventRepository::toDto, userId, afterId, upToId, limit);
+    }
+
+    /**
+     * Id of the newest event of a user, 0 when there is none.
+     */
+    public long findLastId(long userId) {
+        Long lastId = jdbcTemplate.queryForObject(FIND_LAST_ID, Long.class, userId);
+        return lastId != null ? lastId : 0;
+    }
+
+    /**
+     * Id of the oldest event still kept for any user, null when the log is empty.
+     * Events older than this were purged and can no longer be replayed.
+     */
+    public Long findFirstId() {
+        return jdbcTemplate.queryForObject(FIND_FIRST_ID, Long.class);
+    }
+
+    public int deleteBefore(Instant cutoff) {
+        return jdbcTemplate.update(DELETE_BEFORE, Timestamp.from(cutoff));
+    }
+
+    private static TaskEventDTO toDto(ResultSet rs, int rowNum) throws SQLException {
+        long taskId = rs.getLong("task_id");
+        boolean hasTaskId = !rs.wasNull();
+        TaskDTO task = null;
+        if (rs.getString("title") != null) {
+            task = new TaskDTO(taskId, rs.getString("title"), rs.getString("description"),
+                    rs.getString("priority"), rs.getString("status"), rs.getLong("version"));
+        }
+        TaskEventTypeEnum type = TaskEventTypeEnum.fromName(rs.getString("event_type"));
+        // A deleted task's UPDATED/CREATED event only announces the change; the DELETED event follows
+        return new TaskEventDTO(rs.getLong("id"), type, hasTaskId ? taskId : null,
+                type == TaskEventTypeEnum.DELETED ? null : task);
+    }
+}
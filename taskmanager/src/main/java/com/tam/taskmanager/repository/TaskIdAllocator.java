@@ -0,0 +1,52 @@
+package com.tam.taskmanager.repository;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Hands out task ids for writes that bypass Hibernate (COPY, plain JDBC).
+ * Follows Hibernate's pooled optimizer for task_id_seq: every nextval v
+ * reserves the block (v - 49 .. v), so ids never collide with the ones
+ * TaskEntity inserts take from the same sequence.
+ */
+@Repository
+public class TaskIdAllocator {
+
+    // Must match the INCREMENT BY of task_id_seq (06.update_task_id_sequence.sql)
+    // and the allocationSize on TaskEntity
+    public static final int BLOCK_SIZE = 50;
+
+    private static final String NEXT_BLOCKS = "SELECT nextval('task_id_seq') FROM generate_series(1, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserves at least count ids in one round trip and returns exactly
+     * count of them, ascending within each block.
+     */
+    public long[] allocate(int count) {
+        long[] ids = new long[count];
+        if (count == 0) {
+            return ids;
+        }
+        int blocks = (count + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        List<Long> blockEnds = jdbcTemplate.queryForList(NEXT_BLOCKS, Long.class, blocks);
+        int next = 0;
+        for (Long blockEnd : blockEnds) {
+            // The very first block of a fresh sequence starts at 1
+            for (long id = Math.max(1, blockEnd - BLOCK_SIZE + 1); id <= blockEnd && next < count; id++) {
+                ids[next++] = id;
+            }
+        }
+        if (next < count) {
+            // Only possible right after the sequence was (re)started; top up
+            long[] rest = allocate(count - next);
+            System.arraycopy(rest, 0, ids, next, rest.length);
+        }
+        return ids;
+    }
+}
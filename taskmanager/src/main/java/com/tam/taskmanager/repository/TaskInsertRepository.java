@@ -0,0 +1,49 @@
+package com.tam.taskmanager.repository;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Plain JDBC inserts of tasks whose ids were taken from TaskIdAllocator,
+ * for the write pipeline. With reWriteBatchedInserts on the datasource URL
+ * the driver sends a batch as multi-row INSERTs.
+ */
+@Repository
+public class TaskInsertRepository {
+
+    public record NewTask(long id, long userId, String title, String description, String priority,
+            String status) {
+    }
+
+    private static final String INSERT_TASK = """
+            INSERT INTO task (id, title, description, priority, status, assigned_user_id, version)
+            VALUES (?, ?, ?, ?, ?, ?, 0)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts all tasks in one transaction, in the given order.
+     */
+    @Transactional
+    public void insertAll(List<NewTask> tasks) {
+        jdbcTemplate.batchUpdate(INSERT_TASK, tasks, tasks.size(), (ps, task) -> {
+            ps.setLong(1, task.id());
+            ps.setString(2, task.title());
+            ps.setString(3, task.description());
+            ps.setString(4, task.priority());
+            ps.setString(5, task.status());
+            ps.setLong(6, task.userId());
+        });
+    }
+
+    public void insert(NewTask task) {
+        jdbcTemplate.update(INSERT_TASK, task.id(), task.title(), task.description(), task.priority(),
+                task.status(), task.userId());
+    }
+}
@@ -0,0 +1,146 @@
+package com.tam.taskmanager.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Copies the existing tasks into task_partitioned (11.partition_task_table.sql)
+ * and keeps the backfill progress in task_partition_backfill.
+ */
+@Repository
+public class TaskPartitionRepository {
+
+    public record BackfillState(long lastTaskId, long copied, long skipped, Instant startedAt,
+            Instant completedAt) {
+    }
+
+    /**
+     * One copied batch; lastTaskId is null when no task was left after the cursor.
+     */
+    public record BackfillBatch(Long lastTaskId, long copied, long skipped) {
+    }
+
+    private static final String IS_PARTITIONED = "SELECT relkind = 'p' FROM pg_class WHERE oid = 'task'::regclass";
+
+    private static final String HAS_BACKFILL = "SELECT to_regclass('task_partition_backfill') IS NOT NULL";
+
+    private static final String FIND_STATE = """
+            SELECT last_task_id, copied, skipped, started_at, completed_at
+            FROM task_partition_backfill
+            WHERE id = 1
+            """;
+
+    // Serializes backfill runners (of any instance) and gives each batch the current cursor
+    private static final String LOCK_STATE = """
+            UPDATE task_partition_backfill
+            SET started_at = COALESCE(started_at, now())
+            WHERE id = 1
+            RETURNING last_task_id
+            """;
+
+    // FOR SHARE holds off updates and deletes of the batch until it commits: without it a task
+    // moved to another owner in between could be copied with its old owner next to the
+    // mirrored new row. Rows already mirrored by the sync trigger are left alone.
+    private static final String COPY_BATCH = """
+            WITH batch AS (
+                SELECT id, title, description, priority, status, assigned_user_id, version,
+                       created_at, updated_at, change_seq
+                FROM task
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+                FOR SHARE
+            ), copied AS (
+                INSERT INTO task_partitioned (id, title, description, priority, status, assigned_user_id, version,
+                        created_at, updated_at, change_seq)
+                SELECT * FROM batch WHERE assigned_user_id IS NOT NULL
+                ON CONFLICT DO NOTHING
+                RETURNING 1
+            )
+            SELECT (SELECT max(id) FROM batch) AS last_task_id,
+                   (SELECT count(*) FROM copied) AS copied,
+                   (SELECT count(*) FROM batch WHERE assigned_user_id IS NULL) AS skipped
+            """;
+
+    private static final String UPDATE_STATE = """
+            UPDATE task_partition_backfill
+            SET last_task_id = ?, copied = copied + ?, skipped = skipped + ?
+            WHERE id = 1
+            """;
+
+    // A batch can come back empty while rows are left when all its rows were deleted meanwhile
+    private static final String HAS_TASKS_AFTER = "SELECT EXISTS (SELECT 1 FROM task WHERE id > ?)";
+
+    // One snapshot for both counts; the sync trigger writes both tables in the same transaction
+    private static final String COUNT_MISSING = """
+            SELECT (SELECT count(*) FROM task WHERE assigned_user_id IS NOT NULL)
+                 - (SELECT count(*) FROM task_partitioned)
+            """;
+
+    private static final String COMPLETE = "UPDATE task_partition_backfill SET completed_at = now() WHERE id = 1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED, Boolean.class));
+    }
+
+    /**
+     * The backfill state, or null when the migration has not created it.
+     */
+    public BackfillState findState() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_BACKFILL, Boolean.class))) {
+            return null;
+        }
+        List<BackfillState> states = jdbcTemplate.query(FIND_STATE, (rs, rowNum) -> new BackfillState(
+                rs.getLong("last_task_id"), rs.getLong("copied"), rs.getLong("skipped"),
+                toInstant(rs.getTimestamp("started_at")), toInstant(rs.getTimestamp("completed_at"))));
+        return states.isEmpty() ? null : states.get(0);
+    }
+
+    /**
+     * Copies the next batchSize tasks after the stored cursor and moves the
+     * cursor, in one short transaction.
+     */
+    @Transactional
+    public BackfillBatch copyBatch(int batchSize) {
+        Long afterId = jdbcTemplate.queryForObject(LOCK_STATE, Long.class);
+        BackfillBatch batch = jdbcTemplate.queryForObject(COPY_BATCH, (rs, rowNum) -> new BackfillBatch(
+                rs.getObject("last_task_id", Long.class), rs.getLong("copied"), rs.getLong("skipped")),
+                afterId, batchSize);
+        if (batch.lastTaskId() != null) {
+            jdbcTemplate.update(UPDATE_STATE, batch.lastTaskId(), batch.copied(), batch.skipped());
+        }
+        return batch;
+    }
+
+    public boolean hasTasksAfter(long taskId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_TASKS_AFTER, Boolean.class, taskId));
+    }
+
+    /**
+     * Marks the backfill complete when every owned task is in task_partitioned.
+     * Returns the number of tasks still missing (0 when completed). Scans both
+     * tables.
+     */
+    @Transactional
+    public long complete() {
+        Long missing = jdbcTemplate.queryForObject(COUNT_MISSING, Long.class);
+        if (missing != null && missing == 0) {
+            jdbcTemplate.update(COMPLETE);
+            return 0;
+        }
+        return missing == null ? 0 : missing;
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
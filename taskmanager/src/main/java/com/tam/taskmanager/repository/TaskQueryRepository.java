@@ -0,0 +1,23 @@
+package com.tam.taskmanager.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.tam.taskmanager.dto.task.TaskDTO;
+import com.tam.taskmanager.entity.TaskEntity;
+
+/**
+ * Read-only task queries that project rows straight into TaskDTO, without
+ * loading managed TaskEntity instances.
+ */
+public interface TaskQueryRepository {
+
+    /**
+     * Runs the specification as a constructor-expression query. There is no
+     * COUNT query; callers that need to know about a next page ask for one
+     * extra row.
+     */
+    List<TaskDTO> findTaskDtos(Specification<TaskEntity> specification, Sort sort, int offset, int limit);
+}
@@ -0,0 +1,53 @@
+package com.tam.taskmanager.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.tam.taskmanager.dto.task.TaskDTO;
+import com.tam.taskmanager.entity.TaskEntity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class TaskQueryRepositoryImpl implements TaskQueryRepository {
+
+    private final EntityManager entityManager;
+
+    public TaskQueryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<TaskDTO> findTaskDtos(Specification<TaskEntity> specification, Sort sort, int offset, int limit) {
+        return createQuery(specification, sort, offset, limit).getResultList();
+    }
+
+    private TypedQuery<TaskDTO> createQuery(Specification<TaskEntity> specification, Sort sort, int offset,
+            int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskDTO> query = criteriaBuilder.createQuery(TaskDTO.class);
+        Root<TaskEntity> root = query.from(TaskEntity.class);
+        query.select(criteriaBuilder.construct(TaskDTO.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("description"),
+                root.get("priority"),
+                root.get("status"),
+                root.get("version")));
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit);
+    }
+}
@@ -1,21 +1,196 @@
 package com.tam.taskmanager.repository;
 
+import com.tam.taskmanager.dto.task.TaskDTO;
+import com.tam.taskmanager.dto.task.TaskRow;
+import com.tam.taskmanager.dto.task.TaskSearchRow;
 import com.tam.taskmanager.entity.TaskEntity;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
+
+public interface TaskRepository
+        extends JpaRepository<TaskEntity, Long>, JpaSpecificationExecutor<TaskEntity>, TaskQueryRepository {
+
+    /**
+     * Relevance-ordered search served by idx_task_search_vector and
+     * idx_task_search_trgm (05.add_task_search_index.sql).
+     * Matches full-text terms, plain substrings and close misspellings of a
+     * word in the title (pg_trgm word similarity). Rows come back ordered by
+     * (search_rank, id) descending and start strictly after (cursorRank, cursorId); pass Float.MAX_VALUE and
+     * Long.MAX_VALUE to start from the top.
+     */
+    String FULL_TEXT_SEARCH = """
+            SELECT ranked.id, ranked.title, ranked.description, ranked.priority, ranked.status, ranked.version,
+                   ranked.search_rank AS "searchRank"
+            FROM (
+                SELECT t.id, t.title, t.description, t.priority, t.status, t.version,
+                       CAST(ts_rank(t.search_vector, q.query) + word_similarity(:search, t.title) AS real) AS search_rank
+                FROM task t, websearch_to_tsquery('simple', :search) AS q(query)
+                WHERE t.assigned_user_id = :userId
+                  AND (t.search_vector @@ q.query
+                       OR t.title ILIKE :pattern
+                       OR t.description ILIKE :pattern
+                       OR :search <% t.title)
+            ) ranked
+            WHERE (ranked.search_rank, ranked.id) < (CAST(:cursorRank AS real), :cursorId)
+            ORDER BY ranked.search_rank DESC, ranked.id DESC
+            LIMIT :limit OFFSET :offset
+            """;
 
-public interface TaskRepository extends JpaRepository<TaskEntity, Long>, JpaSpecificationExecutor<TaskEntity> {
+    /**
+     * GET /tasks?includeArchived=true: the tasks of a user from task and
+     * task_archive (12.create_task_archive.sql) in one snapshot, id
+     * descending, starting strictly below cursorId (Long.MAX_VALUE for the
+     * top). Each branch is a backward scan of its (assigned_user_id, id)
+     * primary key cut to the rows the page can need. Null filters match
+     * everything.
+     */
+    String ALL_TASKS_WITH_ARCHIVE = """
+            SELECT t.id, t.title, t.description, t.priority, t.status, t.version
+            FROM (
+                (SELECT id, title, description, priority, status, version
+                 FROM task
+                 WHERE assigned_user_id = :userId
+                   AND (CAST(:priority AS varchar) IS NULL OR priority = CAST(:priority AS varchar))
+                   AND (CAST(:status AS varchar) IS NULL OR status = CAST(:status AS varchar))
+                   AND id < :cursorId
+                 ORDER BY id DESC
+                 LIMIT :limit + :offset)
+                UNION ALL
+                (SELECT id, title, description, priority, status, version
+                 FROM task_archive
+                 WHERE assigned_user_id = :userId
+                   AND (CAST(:priority AS varchar) IS NULL OR priority = CAST(:priority AS varchar))
+                   AND (CAST(:status AS varchar) IS NULL OR status = CAST(:status AS varchar))
+                   AND id < :cursorId
+                 ORDER BY id DESC
+                 LIMIT :limit + :offset)
+            ) t
+            ORDER BY t.id DESC
+            LIMIT :limit OFFSET :offset
+            """;
+
+    /**
+     * {@link #FULL_TEXT_SEARCH} over task and task_archive. The archive has
+     * no search index: its branch scans the user's archived tasks, which is
+     * why it is only read when asked for.
+     */
+    String FULL_TEXT_SEARCH_WITH_ARCHIVE = """
+            SELECT ranked.id, ranked.title, ranked.description, ranked.priority, ranked.status, ranked.version,
+                   ranked.search_rank AS "searchRank"
+            FROM (
+                SELECT t.id, t.title, t.description, t.priority, t.status, t.version,
+                       CAST(ts_rank(t.search_vector, q.query) + word_similarity(:search, t.title) AS real) AS search_rank
+                FROM task t, websearch_to_tsquery('simple', :search) AS q(query)
+                WHERE t.assigned_user_id = :userId
+                  AND (t.search_vector @@ q.query
+                       OR t.title ILIKE :pattern
+                       OR t.description ILIKE :pattern
+                       OR :search <% t.title)
+                UNION ALL
+                SELECT a.id, a.title, a.description, a.priority, a.status, a.version,
+                       CAST(ts_rank(a.search_vector, q.query) + word_similarity(:search, a.title) AS real) AS search_rank
+                FROM task_archive a, websearch_to_tsquery('simple', :search) AS q(query)
+                WHERE a.assigned_user_id = :userId
+                  AND (a.search_vector @@ q.query
+                       OR a.title ILIKE :pattern
+                       OR a.description ILIKE :pattern
+                       OR :search <% a.title)
+            ) ranked
+            WHERE (ranked.search_rank, ranked.id) < (CAST(:cursorRank AS real), :cursorId)
+            ORDER BY ranked.search_rank DESC, ranked.id DESC
+            LIMIT :limit OFFSET :offset
+            """;
+
+    /**
+     * Ownership-checked partial update in a single statement. Null fields keep
+     * their current value; a null version skips the optimistic lock check.
+     * Returns nothing when the task does not exist, belongs to another user
+     * or has a different version.
+     */
+    String CONDITIONAL_UPDATE = """
+            UPDATE task
+            SET title = COALESCE(:title, title),
+                description = COALESCE(:description, description),
+                priority = COALESCE(:priority, priority),
+                status = COALESCE(:status, status),
+                version = version + 1
+            WHERE id = :taskId
+              AND assigned_user_id = :userId
+              AND (CAST(:version AS bigint) IS NULL OR version = CAST(:version AS bigint))
+            RETURNING id, title, description, priority, status, version
+            """;
+
+    // Rows per round trip for streamed reads; the Postgres driver only uses a
+    // server-side cursor (and honours this) inside a transaction
+    String STREAM_FETCH_SIZE = "500";
 
     Page<TaskEntity> findAll(Specification<TaskEntity> specification, Pageable pageable);
 
+    /**
+     * Every task of a user in id order, read through a forward-only cursor.
+     * Must be consumed (and closed) inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT new com.tam.taskmanager.dto.task.TaskDTO(t.id, t.title, t.description, t.priority, t.status,"
+            + " t.version) FROM TaskEntity t WHERE t.assignedUser.id = :userId ORDER BY t.id")
+    Stream<TaskDTO> streamAllByUserId(@Param("userId") Long userId);
+
+    @Query(value = FULL_TEXT_SEARCH, nativeQuery = true)
+    List<TaskSearchRow> searchByFullText(@Param("userId") Long userId, @Param("search") String search,
+            @Param("pattern") String pattern, @Param("cursorRank") float cursorRank,
+            @Param("cursorId") long cursorId, @Param("limit") int limit, @Param("offset") int offset);
+
+    @Query(value = ALL_TASKS_WITH_ARCHIVE, nativeQuery = true)
+    List<TaskRow> findAllWithArchive(@Param("userId") Long userId, @Param("priority") String priority,
+            @Param("status") String status, @Param("cursorId") long cursorId, @Param("limit") int limit,
+            @Param("offset") int offset);
+
+    @Query(value = FULL_TEXT_SEARCH_WITH_ARCHIVE, nativeQuery = true)
+    List<TaskSearchRow> searchByFullTextWithArchive(@Param("userId") Long userId, @Param("search") String search,
+            @Param("pattern") String pattern, @Param("cursorRank") float cursorRank,
+            @Param("cursorId") long cursorId, @Param("limit") int limit, @Param("offset") int offset);
+
+    // Not @Modifying: RETURNING makes the UPDATE produce a result set
+    @Transactional
+    @Query(value = CONDITIONAL_UPDATE, nativeQuery = true)
+    Optional<TaskRow> updateByIdAndUserId(@Param("userId") Long userId, @Param("taskId") Long taskId,
+            @Param("version") Long version, @Param("title") String title, @Param("description") String description,
+            @Param("priority") String priority, @Param("status") String status);
+
+    @Modifying
+    @Query("DELETE FROM TaskEntity t WHERE t.id = :taskId AND t.assignedUser.id = :userId"
+            + " AND (:version IS NULL OR t.version = :version)")
+    int deleteByIdAndUserId(@Param("userId") Long userId, @Param("taskId") Long taskId,
+            @Param("version") Long version);
+
+    boolean existsByIdAndAssignedUserId(Long taskId, Long userId);
+
+    @Modifying
+    @Query("DELETE FROM TaskEntity t WHERE t.id IN :taskIds AND t.assignedUser.id = :userId")
+    int deleteAllByIdsAndUserId(@Param("userId") Long userId, @Param("taskIds") Collection<Long> taskIds);
+
     // void deleteById( Specification<TaskEntity> specification,Long id);
 
     // Optional<TaskEntity> findById(Specification<TaskEntity> specification,Long id);
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,130 @@
+package com.tam.taskmanager.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reads and repairs the task_stats counters (08.create_task_stats.sql).
+ * The counters are written by triggers on task, never from Java.
+ */
+@Repository
+public class TaskStatsRepository {
+
+    public record TaskStatsCount(String status, String priority, long taskCount) {
+    }
+
+    /**
+     * Result of one window of the drift scan: the drifted users, the last
+     * user compared (the cursor of the next window) and how many were compared.
+     */
+    public record DriftScan(List<Long> driftedUserIds, long lastUserId, int scannedUsers) {
+    }
+
+    private static final String FIND_BY_USER = "SELECT status, priority, task_count FROM task_stats"
+            + " WHERE user_id = ? AND task_count <> 0";
+
+    // The next users after a cursor, each with whether its counters differ from a count of its
+    // tasks; per user both sides are one partition and one primary key range. Users with
+    // writes in flight may show up as drifted
+    private static final String FIND_DRIFTED_USERS = """
+            SELECT u.id AS user_id, EXISTS (
+                SELECT 1
+                FROM (
+                    SELECT status, priority, count(*) AS task_count
+                    FROM task
+                    WHERE assigned_user_id = u.id
+                    GROUP BY 1, 2
+                ) a
+                FULL JOIN (
+                    SELECT status, priority, task_count
+                    FROM task_stats
+                    WHERE user_id = u.id
+                ) s ON s.status = a.status AND s.priority = a.priority
+                WHERE COALESCE(a.task_count, 0) <> COALESCE(s.task_count, 0)
+            ) AS drifted
+            FROM (
+                SELECT id
+                FROM task_user
+                WHERE id > ?
+                ORDER BY id
+                LIMIT ?
+            ) u
+            ORDER BY u.id
+            """;
+
+    // The write lock of each user (08.create_task_stats.sql), which the counter triggers also take:
+    // waits for writers of these users that already changed counters and holds off new ones
+    // until commit, so the recount below sees exactly the committed tasks. Locks in id order
+    private static final String LOCK_USERS = """
+            SELECT pg_advisory_xact_lock(task_user_lock_key(locked.user_id))
+            FROM (SELECT DISTINCT user_id FROM unnest(CAST(? AS BIGINT[])) AS u(user_id) ORDER BY 1) locked
+            """;
+
+    private static final String DELETE_USERS = "DELETE FROM task_stats WHERE user_id = ANY (?)";
+
+    // One lateral count per user rather than assigned_user_id = ANY (?): each one prunes to the
+    // user's task partition, which a generic plan of ANY cannot
+    private static final String RECOUNT_USERS = """
+            INSERT INTO task_stats (user_id, status, priority, task_count)
+            SELECT u.user_id, c.status, c.priority, c.task_count
+            FROM unnest(CAST(? AS BIGINT[])) AS u(user_id)
+            CROSS JOIN LATERAL (
+                SELECT status, priority, count(*) AS task_count
+                FROM task
+                WHERE assigned_user_id = u.user_id
+                GROUP BY 1, 2
+            ) c
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Non-zero counters of a user: a primary key range scan over at most
+     * one row per status and priority, independent of the number of tasks.
+     */
+    public List<TaskStatsCount> findByUserId(long userId) {
+        return jdbcTemplate.query(FIND_BY_USER, (rs, rowNum) -> new TaskStatsCount(rs.getString("status"),
+                rs.getString("priority"), rs.getLong("task_count")), userId);
+    }
+
+    /**
+     * Compares the counters of the next limit users (by id) after afterUserId
+     * with their tasks. Returns the users compared and which of them drifted;
+     * fewer than limit users means the scan reached the last user.
+     */
+    public DriftScan findDriftedUserIds(long afterUserId, int limit) {
+        List<UserDrift> users = jdbcTemplate.query(FIND_DRIFTED_USERS,
+                (rs, rowNum) -> new UserDrift(rs.getLong("user_id"), rs.getBoolean("drifted")), afterUserId, limit);
+        List<Long> drifted = new ArrayList<>();
+        for (UserDrift user : users) {
+            if (user.drifted()) {
+                drifted.add(user.userId());
+            }
+        }
+        long lastUserId = users.isEmpty() ? afterUserId : users.get(users.size() - 1).userId();
+        return new DriftScan(drifted, lastUserId, users.size());
+    }
+
+    private record UserDrift(long userId, boolean drifted) {
+    }
+
+    /**
+     * Replaces the counters of the given users with a recount from task.
+     * Task writes of these users wait while this runs; other users are not
+     * affected. Returns the number of counter rows written.
+     */
+    @Transactional
+    public int recount(List<Long> userIds) {
+        Long[] ids = userIds.toArray(new Long[0]);
+        jdbcTemplate.query(LOCK_USERS, rs -> {
+        }, (Object) ids);
+        jdbcTemplate.update(DELETE_USERS, (Object) ids);
+        return jdbcTemplate.update(RECOUNT_USERS, (Object) ids);
+    }
+}
@@ -0,0 +1,16 @@
+package com.tam.taskmanager.repository;
+
+import java.util.Optional;
+
+/**
+ * User lookups that go through the Hibernate natural id cache.
+ */
+public interface UserQueryRepository {
+
+    /**
+     * Resolves task_user.id by keycloak_user_id, served from the second-level
+     * cache once the user was loaded; a derived findBy query would always hit
+     * the database.
+     */
+    Optional<Long> findIdByKeycloakUserId(String keycloakUserId);
+}
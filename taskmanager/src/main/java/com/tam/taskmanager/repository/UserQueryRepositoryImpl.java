@@ -0,0 +1,29 @@
+package com.tam.taskmanager.repository;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.tam.taskmanager.entity.UserEntity;
+
+import jakarta.persistence.EntityManager;
+
+public class UserQueryRepositoryImpl implements UserQueryRepository {
+
+    private final EntityManager entityManager;
+
+    public UserQueryRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Read-only, so it may be served by the replica (ReplicaRoutingDataSource)
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findIdByKeycloakUserId(String keycloakUserId) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(UserEntity.class)
+                .loadOptional(keycloakUserId)
+                .map(UserEntity::getId);
+    }
+}
@@ -0,0 +1,55 @@
+package com.tam.taskmanager.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.tam.taskmanager.dto.task.TaskDTO;
+import com.tam.taskmanager.repository.ReactiveTaskRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Streaming counterpart of the TaskService list and search reads: same
+ * filters, ordering and paging, but the rows are emitted as they arrive
+ * instead of being collected into a list on a blocked thread.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveTaskService {
+
+    private static final String SEARCH_ENGINE_FULLTEXT = "fulltext";
+
+    @Autowired
+    private ReactiveTaskRepository reactiveTaskRepository;
+
+    @Value("${app.search.engine:fulltext}")
+    private String searchEngine;
+
+    public Flux<TaskDTO> getAllTasks(String priority, String status, int pageSize, int pageNumber, Long userId) {
+        validatePage(pageSize, pageNumber);
+        log.info("Streaming tasks with priority: {} and status: {}", priority, status);
+        return reactiveTaskRepository.findTasks(userId, priority, status, pageSize, (long) pageNumber * pageSize);
+    }
+
+    public Flux<TaskDTO> searchTasks(String search, int pageSize, int pageNumber, Long userId) {
+        validatePage(pageSize, pageNumber);
+        long offset = (long) pageNumber * pageSize;
+        if (SEARCH_ENGINE_FULLTEXT.equalsIgnoreCase(searchEngine) && search != null && !search.isBlank()) {
+            log.info("Streaming tasks with full-text search input: {}", search);
+            return reactiveTaskRepository.searchByFullText(userId, search.trim(), TaskService.toLikePattern(search),
+                    pageSize, offset);
+        }
+        log.info("Streaming tasks with search input: {}", search);
+        return reactiveTaskRepository.findTasksLike(userId, search, pageSize, offset);
+    }
+
+    private static void validatePage(int pageSize, int pageNumber) {
+        if (pageSize <= 0 || pageNumber < 0) {
+            throw new IllegalArgumentException("Invalid page: pageSize=" + pageSize + ", pageNumber=" + pageNumber);
+        }
+    }
+}
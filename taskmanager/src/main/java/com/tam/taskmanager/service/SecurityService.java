@@ -5,6 +5,8 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tam.taskmanager.config.RequestTimings;
+import com.tam.taskmanager.enums.TimingPhaseEnum;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -13,6 +15,15 @@ import lombok.extern.slf4j.Slf4j;
 public class SecurityService {
 
     public Boolean hasAccessToTasks(Authentication authentication) {
+        long start = System.nanoTime();
+        try {
+            return checkAccessToTasks(authentication);
+        } finally {
+            RequestTimings.record(TimingPhaseEnum.AUTHZ, start);
+        }
+    }
+
+    private Boolean checkAccessToTasks(Authentication authentication) {
         log.info("Checking access for authentication: {}", authentication);
         if (authentication == null) {
             return false;
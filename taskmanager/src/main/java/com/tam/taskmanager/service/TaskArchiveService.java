@@ -0,0 +1,143 @@
+package com.tam.taskmanager.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.tam.taskmanager.config.TaskCacheInvalidator;
+import com.tam.taskmanager.enums.StatusEnum;
+import com.tam.taskmanager.repository.TaskArchiveRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves tasks that match the archive policy (one of the statuses and not
+ * updated for min-age) from task to task_archive, so the hot table and its
+ * indexes only hold the tasks people still work on. Every run archives
+ * batch-size tasks per transaction with a pause in between, up to
+ * max-batches per run. Batches lock with SKIP LOCKED, so every instance runs
+ * the job and they share the work without waiting on each other or on user
+ * writes. Archived tasks are only read by list and search requests with
+ * includeArchived, and no longer count in the task stats.
+ */
+@Slf4j
+@Service
+public class TaskArchiveService {
+
+    @Autowired
+    private TaskArchiveRepository taskArchiveRepository;
+
+    @Autowired
+    private TaskCacheInvalidator taskCacheInvalidator;
+
+    @Value("${app.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.archive.statuses:COMPLETED}")
+    private List<String> statuses;
+
+    @Value("${app.archive.min-age:90d}")
+    private Duration minAge;
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.archive.max-batches:100}")
+    private int maxBatches;
+
+    @Value("${app.archive.pause:100ms}")
+    private Duration pause;
+
+    private final Counter archivedTasks;
+    private final Timer batchTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public TaskArchiveService(MeterRegistry meterRegistry) {
+        this.archivedTasks = Counter.builder("taskmanager.task.archive.archived")
+                .description("Tasks moved to the archive")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("taskmanager.task.archive.batch")
+                .description("Time to archive one batch of tasks")
+                .register(meterRegistry);
+        Gauge.builder("taskmanager.task.archive.lag", lagSeconds, AtomicLong::get)
+                .description("How long the oldest task due for archiving has been waiting, as of the last run")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void validateStatuses() {
+        List<String> known = new ArrayList<>(statuses.size());
+        for (String status : statuses) {
+            try {
+                known.add(StatusEnum.fromName(status.trim()).name());
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring unknown archive status: {}", status);
+            }
+        }
+        statuses = known;
+    }
+
+    @Scheduled(initialDelayString = "${app.archive.initial-delay:1m}",
+            fixedDelayString = "${app.archive.interval:5m}")
+    public void archive() {
+        if (!enabled || statuses.isEmpty()) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(minAge);
+        long archived = 0;
+        try {
+            for (int i = 0; i < maxBatches; i++) {
+                int batch = batchTimer.record(() -> taskArchiveRepository.archiveBatch(statuses, cutoff, batchSize));
+                archived += batch;
+                archivedTasks.increment(batch);
+                // A short batch means the rest is locked by writers or other instances, or gone
+                if (batch < batchSize) {
+                    break;
+                }
+                Thread.sleep(pause);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (DataAccessException e) {
+            log.error("Task archival failed after {} tasks: {}", archived, e.getMessage());
+        } finally {
+            if (archived > 0) {
+                invalidateCache();
+            }
+        }
+        updateLag(cutoff);
+        log.info("Archived {} tasks with status {} not updated since {}", archived, statuses, cutoff);
+    }
+
+    private void invalidateCache() {
+        try {
+            // Batches span users; archiving is rare enough to start every user over
+            taskCacheInvalidator.invalidateCommitted();
+        } catch (RuntimeException e) {
+            log.error("Error invalidating the task cache after archival: {}", e.getMessage());
+        }
+    }
+
+    private void updateLag(Instant cutoff) {
+        try {
+            Instant oldest = taskArchiveRepository.findOldestEligible(statuses, cutoff);
+            lagSeconds.set(oldest == null ? 0 : Duration.between(oldest, cutoff).toSeconds());
+        } catch (DataAccessException e) {
+            log.error("Error reading the task archival lag: {}", e.getMessage());
+        }
+    }
+}
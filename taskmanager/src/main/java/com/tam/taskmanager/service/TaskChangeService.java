@@ -0,0 +1,73 @@
+package com.tam.taskmanager.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.tam.taskmanager.dto.task.TaskChangesDTO;
+import com.tam.taskmanager.repository.TaskChangeRepository;
+import com.tam.taskmanager.repository.TaskChangeRepository.TaskChange;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delta sync: the tasks a client has to create, update or drop to catch up
+ * from a change_seq it stored earlier. Tombstones are kept for
+ * tombstone-retention; clients that sync less often start over.
+ */
+@Slf4j
+@Service
+public class TaskChangeService {
+
+    @Autowired
+    private TaskChangeRepository taskChangeRepository;
+
+    @Value("${app.changes.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Value("${app.changes.tombstone-retention:30d}")
+    private Duration tombstoneRetention;
+
+    public TaskChangesDTO getChanges(Long userId, long since, int pageSize) {
+        if (since < 0) {
+            throw new IllegalArgumentException("Invalid since value: " + since);
+        }
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + maxPageSize);
+        }
+        TaskChangesDTO changes = new TaskChangesDTO();
+        if (since > 0 && since < taskChangeRepository.findPurgedChangeSeq()) {
+            log.info("Changes since {} are no longer complete, resetting user id: {}", since, userId);
+            changes.setReset(true);
+            since = 0;
+        }
+        // One extra row tells whether another page follows
+        List<TaskChange> rows = taskChangeRepository.findChanges(userId, since, pageSize + 1);
+        changes.setHasMore(rows.size() > pageSize);
+        long nextSince = since;
+        for (TaskChange row : rows.subList(0, Math.min(rows.size(), pageSize))) {
+            if (row.deleted()) {
+                changes.getDeleted().add(row.task().getId());
+            } else {
+                changes.getChanged().add(row.task());
+            }
+            nextSince = row.changeSeq();
+        }
+        changes.setNextSince(nextSince);
+        log.info("Found {} changed and {} deleted tasks since {} for user id: {}", changes.getChanged().size(),
+                changes.getDeleted().size(), since, userId);
+        return changes;
+    }
+
+    @Scheduled(initialDelayString = "${app.changes.purge-interval:1d}",
+            fixedDelayString = "${app.changes.purge-interval:1d}")
+    public void purgeTombstones() {
+        long purged = taskChangeRepository.purgeTombstones(Instant.now().minus(tombstoneRetention));
+        log.info("Purged {} task tombstones older than {}", purged, tombstoneRetention);
+    }
+}
@@ -0,0 +1,262 @@
+package com.tam.taskmanager.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.tam.taskmanager.dto.task.TaskEventDTO;
+import com.tam.taskmanager.enums.TaskEventTypeEnum;
+import com.tam.taskmanager.repository.TaskEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fans the task change feed out to the SSE subscribers of this instance.
+ * The task_event log is the source of truth: a notification from
+ * TaskEventListener only says up to which event id a user has news, and
+ * the broker reads the events from its cursor once per notification,
+ * however many of the user's clients are connected here.
+ * Every subscriber has a bounded queue drained by its own sender thread.
+ * A client that falls behind is disconnected and resumes with
+ * Last-Event-ID, replayed from the log; a gap that no longer fits the
+ * buffer (or was purged) is replaced by one RESYNC event.
+ */
+@Slf4j
+@Service
+public class TaskEventBroker {
+
+    @Autowired
+    private TaskEventRepository taskEventRepository;
+
+    @Value("${app.events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.events.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${app.events.heartbeat-interval:15s}")
+    private Duration heartbeatInterval;
+
+    @Value("${app.events.retention:1h}")
+    private Duration retention;
+
+    // Only users with a subscriber on this instance
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter overflowed;
+
+    public TaskEventBroker(MeterRegistry meterRegistry) {
+        Gauge.builder("taskmanager.task.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Task change feed subscribers connected to this instance")
+                .register(meterRegistry);
+        this.overflowed = Counter.builder("taskmanager.task.events.overflowed")
+                .description("Task change feed subscribers disconnected because their buffer was full")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Opens a feed for the user. With lastEventId the events after it are
+     * sent first, in order and without a gap to the live events.
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+        while (true) {
+            Channel channel = channels.computeIfAbsent(userId, Channel::new);
+            channel.lock.lock();
+            try {
+                // Lost the race with the last unsubscribe of the user
+                if (channel.closed) {
+                    continue;
+                }
+                if (channel.cursor < 0) {
+                    channel.cursor = taskEventRepository.findLastId(userId);
+                }
+                if (lastEventId != null) {
+                    replay(channel, subscriber, lastEventId);
+                } else {
+                    subscriber.lastId = channel.cursor;
+                }
+                channel.subscribers.add(subscriber);
+                subscriberCount.incrementAndGet();
+                Runnable unsubscribe = () -> unsubscribe(channel, subscriber);
+                emitter.onCompletion(unsubscribe);
+                emitter.onTimeout(emitter::complete);
+                emitter.onError(e -> unsubscribe.run());
+                break;
+            } finally {
+                channel.lock.unlock();
+            }
+        }
+        Thread.ofVirtual().name("task-events-" + userId).start(() -> send(subscriber));
+        log.info("Task events subscribed for user id: {} after event id: {}", userId, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * Called by the listener: the user has events up to lastId.
+     */
+    public void onNotification(long userId, long lastId) {
+        Channel channel = channels.get(userId);
+        if (channel == null) {
+            return;
+        }
+        channel.lock.lock();
+        try {
+            while (!channel.closed && channel.cursor >= 0 && channel.cursor < lastId) {
+                List<TaskEventDTO> events = taskEventRepository.findAfter(userId, channel.cursor, lastId,
+                        bufferSize);
+                for (Subscriber subscriber : channel.subscribers) {
+                    events.forEach(subscriber::offer);
+                }
+                channel.cursor = events.isEmpty() ? lastId : events.get(events.size() - 1).getId();
+            }
+        } finally {
+            channel.lock.unlock();
+        }
+    }
+
+    /**
+     * Reads up to the newest event of every subscribed user; run after the
+     * listener (re)connects, as notifications sent meanwhile were lost.
+     */
+    public void catchUpAll() {
+        for (Long userId : channels.keySet()) {
+            try {
+                onNotification(userId, taskEventRepository.findLastId(userId));
+            } catch (Exception e) {
+                log.error("Error catching up task events for user id: {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.events.purge-interval:10m}",
+            fixedDelayString = "${app.events.purge-interval:10m}")
+    public void purge() {
+        int deleted = taskEventRepository.deleteBefore(Instant.now().minus(retention));
+        log.info("Purged {} task events older than {}", deleted, retention);
+    }
+
+    private void replay(Channel channel, Subscriber subscriber, long lastEventId) {
+        subscriber.lastId = lastEventId;
+        if (lastEventId >= channel.cursor) {
+            return;
+        }
+        Long firstId = taskEventRepository.findFirstId();
+        List<TaskEventDTO> events = firstId == null || lastEventId < firstId - 1 ? null
+                : taskEventRepository.findAfter(channel.userId, lastEventId, channel.cursor, bufferSize + 1);
+        if (events == null || events.size() > bufferSize) {
+            subscriber.offer(new TaskEventDTO(channel.cursor, TaskEventTypeEnum.RESYNC, null, null));
+        } else {
+            events.forEach(subscriber::offer);
+        }
+    }
+
+    private void unsubscribe(Channel channel, Subscriber subscriber) {
+        subscriber.closed = true;
+        channel.lock.lock();
+        try {
+            if (channel.subscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            if (channel.subscribers.isEmpty() && !channel.closed) {
+                channel.closed = true;
+                channels.remove(channel.userId, channel);
+            }
+        } finally {
+            channel.lock.unlock();
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        SseEmitter emitter = subscriber.emitter;
+        try {
+            while (!subscriber.closed) {
+                TaskEventDTO event = subscriber.overflowed ? subscriber.queue.poll()
+                        : subscriber.queue.poll(heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (event != null) {
+                    emitter.send(SseEmitter.event().id(String.valueOf(event.getId())).name(event.getType().name())
+                            .data(event, MediaType.APPLICATION_JSON));
+                } else if (subscriber.overflowed) {
+                    // Everything accepted before the overflow is sent, the client resumes from there
+                    overflowed.increment();
+                    emitter.complete();
+                    return;
+                } else {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.info("Task events subscriber disconnected: {}", e.getMessage());
+            emitter.completeWithError(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        }
+    }
+
+    private static final class Channel {
+        private final long userId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        // Last event id read for the user, -1 until the first subscriber initialises it
+        private long cursor = -1;
+        private boolean closed;
+
+        private Channel(Long userId) {
+            this.userId = userId;
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<TaskEventDTO> queue;
+        // Last event id accepted; guards against replayed events arriving again live
+        private long lastId;
+        private volatile boolean overflowed;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        // Called with the channel lock held
+        private void offer(TaskEventDTO event) {
+            if (overflowed || event.getId() <= lastId) {
+                return;
+            }
+            if (queue.offer(event)) {
+                lastId = event.getId();
+            } else {
+                overflowed = true;
+            }
+        }
+    }
+}
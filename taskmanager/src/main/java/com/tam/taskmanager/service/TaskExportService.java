@@ -0,0 +1,128 @@
+package com.tam.taskmanager.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tam.taskmanager.dto.task.TaskDTO;
+import com.tam.taskmanager.enums.ExportFormatEnum;
+import com.tam.taskmanager.repository.TaskRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes all tasks of a user as NDJSON or CSV while they are read from the
+ * database cursor, so memory use does not depend on the number of tasks.
+ */
+@Slf4j
+@Service
+public class TaskExportService {
+
+    private static final String CSV_HEADER = "id,title,description,priority,status,version";
+
+    // Flush at most once per fetched batch; the first row is flushed on its own
+    // so the client starts receiving data before the query has finished
+    private static final int FLUSH_EVERY_ROWS = Integer.parseInt(TaskRepository.STREAM_FETCH_SIZE);
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private final ObjectWriter rowWriter;
+
+    public TaskExportService(ObjectMapper objectMapper) {
+        this.rowWriter = objectMapper.writerFor(TaskDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Streams every task of the user to the output stream and returns the
+     * number of rows written. The stream is flushed but not closed.
+     */
+    @Transactional(readOnly = true)
+    public long exportTasks(Long userId, ExportFormatEnum format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8),
+                WRITE_BUFFER_SIZE);
+        long rows;
+        try (Stream<TaskDTO> tasks = taskRepository.streamAllByUserId(userId)) {
+            rows = format == ExportFormatEnum.CSV ? writeCsv(tasks.iterator(), writer)
+                    : writeNdjson(tasks.iterator(), writer);
+        }
+        writer.flush();
+        log.info("Exported {} tasks as {} for user {}", rows, format, userId);
+        return rows;
+    }
+
+    private long writeNdjson(Iterator<TaskDTO> tasks, Writer writer) throws IOException {
+        JsonGenerator generator = rowWriter.createGenerator(writer);
+        generator.setRootValueSeparator(null);
+        long rows = 0;
+        while (tasks.hasNext()) {
+            rowWriter.writeValue(generator, tasks.next());
+            generator.writeRaw('\n');
+            if (++rows % FLUSH_EVERY_ROWS == 1) {
+                generator.flush();
+            }
+        }
+        generator.flush();
+        return rows;
+    }
+
+    private long writeCsv(Iterator<TaskDTO> tasks, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long rows = 0;
+        while (tasks.hasNext()) {
+            TaskDTO task = tasks.next();
+            writer.write(String.valueOf(task.getId()));
+            writer.write(',');
+            writeCsvField(writer, task.getTitle());
+            writer.write(',');
+            writeCsvField(writer, task.getDescription());
+            writer.write(',');
+            writeCsvField(writer, task.getPriority() == null ? null : task.getPriority().name());
+            writer.write(',');
+            writeCsvField(writer, task.getStatus() == null ? null : task.getStatus().name());
+            writer.write(',');
+            writer.write(String.valueOf(task.getVersion()));
+            writer.write('\n');
+            if (++rows % FLUSH_EVERY_ROWS == 1) {
+                writer.flush();
+            }
+        }
+        return rows;
+    }
+
+    // RFC 4180: quote fields containing a separator, quote or line break
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,229 @@
+package com.tam.taskmanager.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.tam.taskmanager.config.TaskCacheInvalidator;
+import com.tam.taskmanager.dto.task.TaskImportChunkDTO;
+import com.tam.taskmanager.dto.task.TaskImportResultDTO;
+import com.tam.taskmanager.dto.task.TaskImportRowDTO;
+import com.tam.taskmanager.enums.ExportFormatEnum;
+import com.tam.taskmanager.enums.PriorityEnum;
+import com.tam.taskmanager.enums.StatusEnum;
+import com.tam.taskmanager.repository.TaskIdAllocator;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads uploaded tasks with the Postgres COPY protocol.
+ * The upload is parsed one row at a time; valid rows are buffered until a
+ * chunk is full and then written with a single COPY, each chunk in its own
+ * transaction. Heap use is bounded by the chunk size, not by the upload.
+ */
+@Slf4j
+@Service
+public class TaskImportService {
+
+    private static final String COPY_TASKS = "COPY task (id, title, description, priority, status,"
+            + " assigned_user_id, version) FROM STDIN WITH (FORMAT csv)";
+
+    // Column sizes from 05.add_task_search_index.sql
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    // Keeps the report small when a whole upload is invalid
+    private static final int MAX_ERRORS_PER_CHUNK = 100;
+
+    @Value("${app.import.chunk-size:5000}")
+    private int chunkSize;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TaskIdAllocator taskIdAllocator;
+
+    @Autowired
+    private TaskCacheInvalidator taskCacheInvalidator;
+
+    private final ObjectReader ndjsonReader;
+    private final ObjectReader csvReader;
+
+    public TaskImportService(ObjectMapper objectMapper) {
+        this.ndjsonReader = objectMapper.readerFor(TaskImportRowDTO.class);
+        CsvMapper csvMapper = new CsvMapper();
+        csvMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.csvReader = csvMapper.readerFor(TaskImportRowDTO.class).with(CsvSchema.emptySchema().withHeader());
+    }
+
+    /**
+     * Imports every row of the upload as a task of the user.
+     * NDJSON takes one object per line, CSV needs a header row naming the
+     * title, description, priority and status columns (in any order).
+     */
+    public TaskImportResultDTO importTasks(Long userId, ExportFormatEnum format, InputStream inputStream)
+            throws IOException {
+        TaskImportResultDTO result = new TaskImportResultDTO();
+        ObjectReader reader = format == ExportFormatEnum.CSV ? csvReader : ndjsonReader;
+        List<TaskImportRowDTO> pending = new ArrayList<>(chunkSize);
+        TaskImportChunkDTO chunk = newChunk(1, 1);
+        long row = 0;
+        try (MappingIterator<TaskImportRowDTO> rows = reader.readValues(inputStream)) {
+            while (rows.hasNextValue()) {
+                TaskImportRowDTO task = rows.nextValue();
+                row++;
+                String error = validate(task);
+                if (error == null) {
+                    pending.add(task);
+                } else {
+                    rejectRow(chunk, row, error);
+                }
+                if (row - chunk.getFirstRow() + 1 == chunkSize) {
+                    copyChunk(userId, pending, chunk, row, result);
+                    pending.clear();
+                    chunk = newChunk(chunk.getChunk() + 1, row + 1);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // The parser cannot resynchronise reliably, so the rest of the upload is skipped
+            result.setParseError("Malformed input after row " + row + ": " + e.getOriginalMessage());
+        }
+        if (row >= chunk.getFirstRow()) {
+            copyChunk(userId, pending, chunk, row, result);
+        }
+        result.setRowsRead(row);
+        log.info("Imported {} of {} tasks for user {} in {} chunks", result.getImported(), row, userId,
+                result.getChunks().size());
+        return result;
+    }
+
+    /**
+     * Checks one row and normalises priority and status to the stored enum
+     * names. Returns the error message, or null when the row is valid.
+     */
+    private static String validate(TaskImportRowDTO task) {
+        String title = task.getTitle();
+        if (title == null || title.isBlank()) {
+            return "title is required";
+        }
+        if (title.length() > MAX_TITLE_LENGTH) {
+            return "title is longer than " + MAX_TITLE_LENGTH + " characters";
+        }
+        if (task.getDescription() != null && task.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "description is longer than " + MAX_DESCRIPTION_LENGTH + " characters";
+        }
+        if (task.getPriority() == null) {
+            return "Invalid priority value: null";
+        }
+        if (task.getStatus() == null) {
+            return "Invalid status value: null";
+        }
+        // No exception per invalid row: a bad file can have thousands of them
+        PriorityEnum priority = PriorityEnum.findByName(task.getPriority().toUpperCase());
+        if (priority == null) {
+            return "Invalid priority value: " + task.getPriority();
+        }
+        StatusEnum status = StatusEnum.findByName(task.getStatus().toUpperCase());
+        if (status == null) {
+            return "Invalid status value: " + task.getStatus();
+        }
+        task.setPriority(priority.name());
+        task.setStatus(status.name());
+        return null;
+    }
+
+    private void copyChunk(Long userId, List<TaskImportRowDTO> tasks, TaskImportChunkDTO chunk, long lastRow,
+            TaskImportResultDTO result) {
+        chunk.setLastRow(lastRow);
+        if (!tasks.isEmpty()) {
+            try {
+                long[] ids = taskIdAllocator.allocate(tasks.size());
+                String copyData = toCopyData(userId, tasks, ids);
+                try (Connection connection = dataSource.getConnection()) {
+                    CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                    copyManager.copyIn(COPY_TASKS, new StringReader(copyData));
+                    if (!connection.getAutoCommit()) {
+                        connection.commit();
+                    }
+                }
+                // COPY bypasses Hibernate, cached task lists would not see the new rows
+                taskCacheInvalidator.invalidateCommitted(userId, List.of());
+                chunk.setImported(tasks.size());
+            } catch (SQLException | IOException | DataAccessException e) {
+                log.error("Error copying import chunk {}: {}", chunk.getChunk(), e.getMessage());
+                chunk.setCopyError(e.getMessage());
+                chunk.setRejected(chunk.getRejected() + tasks.size());
+            }
+        }
+        result.setImported(result.getImported() + chunk.getImported());
+        result.setRejected(result.getRejected() + chunk.getRejected());
+        result.getChunks().add(chunk);
+    }
+
+    // COPY csv format: an unquoted empty field is NULL, a quoted one is ''
+    private static String toCopyData(Long userId, List<TaskImportRowDTO> tasks, long[] ids) {
+        StringBuilder copyData = new StringBuilder(tasks.size() * 128);
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskImportRowDTO task = tasks.get(i);
+            copyData.append(ids[i]).append(',');
+            appendCopyField(copyData, task.getTitle());
+            copyData.append(',');
+            appendCopyField(copyData, task.getDescription());
+            copyData.append(',').append(task.getPriority())
+                    .append(',').append(task.getStatus())
+                    .append(',').append(userId)
+                    .append(",0\n");
+        }
+        return copyData.toString();
+    }
+
+    private static void appendCopyField(StringBuilder copyData, String value) {
+        if (value == null) {
+            return;
+        }
+        copyData.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                copyData.append('"');
+            }
+            copyData.append(c);
+        }
+        copyData.append('"');
+    }
+
+    private static TaskImportChunkDTO newChunk(int number, long firstRow) {
+        TaskImportChunkDTO chunk = new TaskImportChunkDTO();
+        chunk.setChunk(number);
+        chunk.setFirstRow(firstRow);
+        return chunk;
+    }
+
+    private static void rejectRow(TaskImportChunkDTO chunk, long row, String error) {
+        chunk.setRejected(chunk.getRejected() + 1);
+        if (chunk.getErrors().size() < MAX_ERRORS_PER_CHUNK) {
+            chunk.getErrors().add("row " + row + ": " + error);
+        }
+    }
+}
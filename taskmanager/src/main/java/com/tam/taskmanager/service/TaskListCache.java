@@ -0,0 +1,199 @@
+package com.tam.taskmanager.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tam.taskmanager.dto.task.TaskDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pages of GET /tasks (the priority/status filters of TaskService), cached
+ * per user so that a write only drops the pages of its own user. Replaces
+ * Hibernate's query cache, which can only invalidate the whole task table.
+ * Entries are evicted through TaskCacheInvalidator on every write path of
+ * this instance and for writes of other instances announced by
+ * TaskEventListener; expire-after-write bounds how long a page stays stale
+ * when an announcement is missed (events disabled, listener reconnecting).
+ * A page loaded before an eviction lands in the evicted entry and is never
+ * served.
+ * Each page is stored with the version of the user's tasks
+ * (task_collection_version) read in the transaction that loaded it, the
+ * ETag of GET /tasks, and the pages of a user all share one version: a page
+ * read at an older version than the cached ones (a lagging replica) is not
+ * stored, one read at a newer version drops the older pages. The version
+ * also answers If-None-Match without a query.
+ * Page hits and misses are published as taskmanager.task.list.cache
+ * (result tag).
+ */
+@Slf4j
+@Service
+public class TaskListCache {
+
+    /**
+     * Tasks of a cached page and the version of the user's tasks they were
+     * read at.
+     */
+    public record Page(long version, List<TaskDTO> tasks) {
+    }
+
+    // Version of a user none of whose pages or versions was loaded yet
+    private static final long UNKNOWN_VERSION = -1;
+
+    private final Cache<Long, UserPages> users;
+    private final int pagesPerUser;
+    private final Counter hits;
+    private final Counter misses;
+
+    public TaskListCache(@Value("${app.task-list-cache.maximum-users:1000}") long maximumUsers,
+            @Value("${app.task-list-cache.pages-per-user:50}") int pagesPerUser,
+            @Value("${app.task-list-cache.expire-after-write:5m}") Duration expireAfterWrite,
+            MeterRegistry meterRegistry) {
+        log.info("Configuring task list cache with maximumUsers={}, pagesPerUser={}, expireAfterWrite={}",
+                maximumUsers, pagesPerUser, expireAfterWrite);
+        this.pagesPerUser = pagesPerUser;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumUsers)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+        this.hits = Counter.builder("taskmanager.task.list.cache")
+                .description("Task list pages served from the cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("taskmanager.task.list.cache")
+                .description("Task list pages loaded from the database")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("taskmanager.task.list.cache.users", users, Cache::estimatedSize)
+                .description("Users with cached task list pages")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The cached page of the user under key, or the loader's page at the
+     * version read first, in the caller's transaction. The loaded page is
+     * cached unless the user was evicted while it loaded or a newer version
+     * is cached already.
+     */
+    public Page get(Long userId, Object key, LongSupplier version, Supplier<List<TaskDTO>> loader) {
+        UserPages pages = users.get(userId, id -> new UserPages(pagesPerUser));
+        Page page = pages.get(key);
+        if (page != null) {
+            hits.increment();
+            return page;
+        }
+        misses.increment();
+        // Before the tasks: a write in between makes the version older than the tasks, never newer
+        long loadedVersion = version.getAsLong();
+        page = new Page(loadedVersion, List.copyOf(loader.get()));
+        pages.put(key, page);
+        return page;
+    }
+
+    /**
+     * The cached version of the user's tasks, or the loader's, which is
+     * cached like the version of a page.
+     */
+    public long getVersion(Long userId, LongSupplier loader) {
+        UserPages pages = users.get(userId, id -> new UserPages(pagesPerUser));
+        long version = pages.getVersion();
+        if (version != UNKNOWN_VERSION) {
+            return version;
+        }
+        version = loader.getAsLong();
+        pages.advance(version);
+        return version;
+    }
+
+    /**
+     * For a write in the current transaction: evicts the user once the
+     * transaction completes, before the writer's response is sent. Evicts
+     * right away when no transaction is active (the write has committed).
+     */
+    public void evictAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(userId);
+            }
+        });
+    }
+
+    /**
+     * For a write that already committed.
+     */
+    public void evict(Long userId) {
+        users.invalidate(userId);
+    }
+
+    /**
+     * For writes of unknown users (archival, missed announcements).
+     */
+    public void evictAll() {
+        users.invalidateAll();
+    }
+
+    // Least recently used pages of one user, all read at version
+    private static class UserPages {
+
+        private final Map<Object, List<TaskDTO>> pages;
+        private long version = UNKNOWN_VERSION;
+
+        UserPages(int maximumPages) {
+            this.pages = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, List<TaskDTO>> eldest) {
+                    return size() > maximumPages;
+                }
+            };
+        }
+
+        synchronized Page get(Object key) {
+            List<TaskDTO> tasks = pages.get(key);
+            return tasks != null ? new Page(version, tasks) : null;
+        }
+
+        synchronized long getVersion() {
+            return version;
+        }
+
+        synchronized void put(Object key, Page page) {
+            if (advance(page.version())) {
+                pages.put(key, page.tasks());
+            }
+        }
+
+        /**
+         * Moves to newVersion unless it is older, dropping the pages of the
+         * previous version. Returns false for an older version.
+         */
+        synchronized boolean advance(long newVersion) {
+            if (newVersion < version) {
+                return false;
+            }
+            if (newVersion > version) {
+                pages.clear();
+                version = newVersion;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.tam.taskmanager.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.tam.taskmanager.repository.TaskPartitionRepository;
+import com.tam.taskmanager.repository.TaskPartitionRepository.BackfillBatch;
+import com.tam.taskmanager.repository.TaskPartitionRepository.BackfillState;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Step 2 of the task partitioning migration (11.partition_task_table.sql):
+ * copies the existing tasks into task_partitioned in id order, batch-size
+ * rows per transaction with a pause in between, so writers are only held
+ * off the rows of the current batch for a moment and replicas keep up.
+ * Progress is stored after every batch; a stopped or failed backfill
+ * resumes where it left off. Started from the taskpartitioning actuator
+ * endpoint; the next start of the application swaps the tables.
+ */
+@Slf4j
+@Service
+public class TaskPartitionBackfillService {
+
+    @Autowired
+    private TaskPartitionRepository taskPartitionRepository;
+
+    @Value("${app.partitioning.backfill.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.partitioning.backfill.pause:50ms}")
+    private Duration pause;
+
+    // Backoff after a failed batch (deadlock with a writer, connection loss)
+    @Value("${app.partitioning.backfill.retry-delay:5s}")
+    private Duration retryDelay;
+
+    private volatile boolean running;
+    private volatile String lastError;
+
+    /**
+     * Starts the backfill in the background. Returns false when it is
+     * already running or there is nothing to backfill.
+     */
+    public synchronized boolean start() {
+        if (running) {
+            return false;
+        }
+        BackfillState state = taskPartitionRepository.findState();
+        if (state == null || state.completedAt() != null || taskPartitionRepository.isPartitioned()) {
+            return false;
+        }
+        running = true;
+        lastError = null;
+        Thread.ofPlatform().daemon().name("task-partition-backfill").start(this::backfill);
+        log.info("Task partition backfill started after task id: {}", state.lastTaskId());
+        return true;
+    }
+
+    /**
+     * Stops after the current batch.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("partitioned", taskPartitionRepository.isPartitioned());
+        status.put("running", running);
+        BackfillState state = taskPartitionRepository.findState();
+        if (state != null) {
+            status.put("lastTaskId", state.lastTaskId());
+            status.put("copied", state.copied());
+            status.put("skipped", state.skipped());
+            status.put("startedAt", state.startedAt());
+            status.put("completedAt", state.completedAt());
+        }
+        status.put("lastError", lastError);
+        return status;
+    }
+
+    private void backfill() {
+        long copied = 0;
+        try {
+            while (running) {
+                BackfillBatch batch;
+                try {
+                    batch = taskPartitionRepository.copyBatch(batchSize);
+                } catch (DataAccessException e) {
+                    lastError = e.getMessage();
+                    log.error("Task partition backfill batch failed, retrying in {}: {}", retryDelay, e.getMessage());
+                    Thread.sleep(retryDelay);
+                    continue;
+                }
+                copied += batch.copied();
+                if (batch.lastTaskId() == null) {
+                    long lastTaskId = taskPartitionRepository.findState().lastTaskId();
+                    if (!taskPartitionRepository.hasTasksAfter(lastTaskId)) {
+                        finish(copied);
+                        return;
+                    }
+                }
+                Thread.sleep(pause);
+            }
+            log.info("Task partition backfill stopped after copying {} tasks", copied);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            log.error("Task partition backfill failed: {}", e.getMessage());
+        } finally {
+            running = false;
+        }
+    }
+
+    private void finish(long copied) {
+        long missing = taskPartitionRepository.complete();
+        if (missing != 0) {
+            lastError = missing + " tasks differ between task and task_partitioned";
+            log.error("Task partition backfill copied {} tasks but {}", copied, lastError);
+            return;
+        }
+        log.info("Task partition backfill completed after copying {} tasks; the tables swap on the next start",
+                copied);
+    }
+}
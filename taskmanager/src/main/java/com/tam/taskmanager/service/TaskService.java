@@ -1,26 +1,42 @@
 package com.tam.taskmanager.service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.OptimisticLockingFailureException;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.scheduling.config.Task;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.tam.taskmanager.Specs.TaskSpecs;
+import com.tam.taskmanager.config.TaskCacheInvalidator;
+import com.tam.taskmanager.dto.task.BulkTaskOperationDTO;
+import com.tam.taskmanager.dto.task.BulkTaskResultDTO;
+import com.tam.taskmanager.dto.task.TaskCursor;
 import com.tam.taskmanager.dto.task.TaskDTO;
+import com.tam.taskmanager.dto.task.TaskRow;
+import com.tam.taskmanager.dto.task.TaskSearchRow;
+import com.tam.taskmanager.dto.task.TaskSliceDTO;
 import com.tam.taskmanager.entity.TaskEntity;
 import com.tam.taskmanager.entity.UserEntity;
+import com.tam.taskmanager.enums.BulkOperationEnum;
 import com.tam.taskmanager.enums.PriorityEnum;
 import com.tam.taskmanager.enums.StatusEnum;
+import com.tam.taskmanager.repository.TaskCollectionVersionRepository;
 import com.tam.taskmanager.repository.TaskRepository;
-import org.springframework.data.domain.Pageable;
+import com.tam.taskmanager.service.TaskListCache.Page;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,23 +50,53 @@ public class TaskService {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskCacheInvalidator taskCacheInvalidator;
+
+    @Autowired
+    private TaskListCache taskListCache;
+
+    @Autowired
+    private TaskCollectionVersionRepository taskCollectionVersionRepository;
+
+    @Autowired
+    private TaskWritePipeline taskWritePipeline;
+
+    private static final String SEARCH_ENGINE_FULLTEXT = "fulltext";
+
+    // Column sizes from 05.add_task_search_index.sql
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    // fulltext: ranked tsvector/trigram search, like: legacy LIKE specification
+    @Value("${app.search.engine:fulltext}")
+    private String searchEngine;
+
+    @Value("${app.bulk.max-operations:5000}")
+    private int bulkMaxOperations;
+
+    // Matches idx_task_assigned_user_id_desc (task_pkey once partitioned) so keyset slices are index range scans
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "id");
+
+    // A GET /tasks page of one user in TaskListCache: filters, keyset position and offset
+    private record TaskListKey(String priority, String status, Long beforeId, int offset, int limit) {
+    }
+
     // @Autowired
     // private UserService userService;
 
     public Long createTask(Long userId, String title, String description, String priority, String status) {
-        PriorityEnum priorityEnum = null;
-        StatusEnum statusEnum = null;
-        try {
-            priorityEnum = PriorityEnum.valueOf(priority.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Invalid priority value: " + priority);
+        PriorityEnum priorityEnum = PriorityEnum.fromName(priority.toUpperCase());
+        StatusEnum statusEnum = StatusEnum.fromName(status.toUpperCase());
+        if (title.length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("title is longer than " + MAX_TITLE_LENGTH + " characters");
+        }
+        if (description.length() > MAX_DESCRIPTION_LENGTH) {
+            throw new IllegalArgumentException("description is longer than " + MAX_DESCRIPTION_LENGTH + " characters");
         }
 
-        try {
-            statusEnum = StatusEnum.valueOf(status.toUpperCase());
-
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Invalid status value: " + status);
+        if (taskWritePipeline.isEnabled()) {
+            return taskWritePipeline.submit(userId, title, description, priorityEnum.name(), statusEnum.name());
         }
 
         TaskDTO task = new TaskDTO(null, title, description, priorityEnum, statusEnum);
@@ -60,6 +106,7 @@ public class TaskService {
         user.setId(userId);
         // save to DB
         TaskEntity savedTask = taskRepository.save(toEntity(user, task));
+        taskCacheInvalidator.invalidateListsAfterCommit(userId);
 
         return savedTask.getId();
     }
@@ -72,51 +119,81 @@ public class TaskService {
         taskEntity.setStatus(taskDTO.getStatus().name());
         try {
             taskEntity.setAssignedUser(userId);
+            taskEntity.setAssignedUserId(userId.getId());
         } catch (Exception e) {
             log.error("Error assigning user to task: {}", e.getMessage());
         }
         return taskEntity;
     }
 
-    private TaskDTO toDto(TaskEntity taskEntity) {
+    static TaskDTO toDto(TaskEntity taskEntity) {
         return new TaskDTO(
                 taskEntity.getId(),
                 taskEntity.getTitle(),
                 taskEntity.getDescription(),
-                PriorityEnum.valueOf(taskEntity.getPriority()),
-                StatusEnum.valueOf(taskEntity.getStatus()));
+                PriorityEnum.fromName(taskEntity.getPriority()),
+                StatusEnum.fromName(taskEntity.getStatus()),
+                taskEntity.getVersion());
     }
 
-    public TaskDTO updateTask(long userId, Long taskId, String title, String description, String priority,
-            String status) {
-        PriorityEnum priorityEnum = null;
-        StatusEnum statusEnum = null;
-        try {
-            priorityEnum = PriorityEnum.valueOf(priority.toUpperCase());
+    /**
+     * Replaces every field of a task in one ownership-checked UPDATE.
+     * expectedVersion may be null to skip the optimistic lock check.
+     */
+    @Transactional
+    public TaskDTO updateTask(long userId, Long taskId, Long expectedVersion, String title, String description,
+            String priority, String status) {
+        PriorityEnum priorityEnum = PriorityEnum.fromName(priority.toUpperCase());
+        StatusEnum statusEnum = StatusEnum.fromName(status.toUpperCase());
 
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Invalid priority value: " + priority);
+        log.info("Updating task with id: {}, title: {}, description: {}, priority: {}, status: {}",
+                taskId, title, description, priorityEnum, statusEnum);
+        TaskDTO updatedTask = applyUpdate(userId, taskId, expectedVersion, title, description, priorityEnum,
+                statusEnum);
+        log.info("Updated task with id: {}", taskId);
+        return updatedTask;
+    }
+
+    /**
+     * Updates only the supplied (non-null) fields of a task in one
+     * ownership-checked UPDATE. expectedVersion may be null to skip the
+     * optimistic lock check.
+     */
+    @Transactional
+    public TaskDTO patchTask(long userId, Long taskId, Long expectedVersion, String title, String description,
+            String priority, String status) {
+        if (title == null && description == null && priority == null && status == null) {
+            throw new IllegalArgumentException("Nothing to update for task id: " + taskId);
         }
+        PriorityEnum priorityEnum = priority != null ? PriorityEnum.fromName(priority.toUpperCase()) : null;
+        StatusEnum statusEnum = status != null ? StatusEnum.fromName(status.toUpperCase()) : null;
+        log.info("Patching task with id: {}, expected version: {}", taskId, expectedVersion);
+        return applyUpdate(userId, taskId, expectedVersion, title, description, priorityEnum, statusEnum);
+    }
 
-        try {
-            statusEnum = StatusEnum.valueOf(status.toUpperCase());
+    private TaskDTO applyUpdate(long userId, Long taskId, Long expectedVersion, String title, String description,
+            PriorityEnum priority, StatusEnum status) {
+        // The UPDATE runs as a native query, which Hibernate does not treat as a write
+        taskCacheInvalidator.invalidateInTransaction(userId, taskId);
+        return taskRepository
+                .updateByIdAndUserId(userId, taskId, expectedVersion, title, description,
+                        priority != null ? priority.name() : null, status != null ? status.name() : null)
+                .map(TaskService::toDto)
+                .orElseThrow(() -> writeFailure(userId, taskId, expectedVersion));
+    }
 
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException("Invalid status value: " + status);
+    /**
+     * Explains why a conditional write matched no row. Only runs on the
+     * failure path, so the happy path stays a single statement.
+     */
+    private RuntimeException writeFailure(long userId, Long taskId, Long expectedVersion) {
+        if (expectedVersion != null && taskRepository.existsByIdAndAssignedUserId(taskId, userId)) {
+            log.warn("Version conflict on task id: {}, expected version: {}", taskId, expectedVersion);
+            return new OptimisticLockingFailureException(
+                    "Task " + taskId + " was modified concurrently, expected version " + expectedVersion);
         }
-
-        log.info("Updating task with id: {}, title: {}, description: {}, priority: {}, status: {}",
-                taskId, title, description, priorityEnum, statusEnum);
-        // Update the task in the database using taskId
-        TaskSpecs taskSpecs = new TaskSpecs();
-        Optional<TaskEntity> taskEntityOptional = taskRepository
-                .findOne(taskSpecs.getTaskByIdAndUserId(userId, taskId));
-        TaskEntity taskEntity = taskEntityOptional
-                .orElseThrow(() -> new IllegalArgumentException("Task not found with id: " + taskId));
-        taskEntity = updateEntity(taskEntity, title, description, priorityEnum, statusEnum);
-        taskRepository.save(taskEntity);
-        log.info("Updated task with id: {}", taskId);
-        return toDto(taskEntity);
+        log.error("Task not found or you don't have permission to change it: userId={}, taskId={}", userId, taskId);
+        return new EmptyResultDataAccessException("Task not found with id: " + taskId, 1);
     }
 
     private TaskEntity updateEntity(TaskEntity taskEntity, String title, String description, PriorityEnum priority,
@@ -128,65 +205,399 @@ public class TaskService {
         return taskEntity;
     }
 
-    public boolean deleteTask(Long userId, Long taskId) {
+    /**
+     * Deletes a task in one ownership-checked DELETE. Returns false when the
+     * task does not exist or belongs to another user, and throws
+     * OptimisticLockingFailureException when expectedVersion is stale.
+     */
+    @Transactional
+    public boolean deleteTask(Long userId, Long taskId, Long expectedVersion) {
         log.info("Deleting task with id: {}", taskId);
-        TaskSpecs specs = new TaskSpecs();
-        Optional<TaskEntity> task = taskRepository.findOne(specs.getTaskByIdAndUserId(userId, taskId));
-        if (task.isPresent()) {
-            log.info("Found task: {}", task.get().getId());
-            try {
-                taskRepository.delete(task.get());
-                return true;
-            } catch (OptimisticLockingFailureException e) {
-                // TODO: handle exception
-                log.error("Error deleting task with id {}: {}", taskId, e.getMessage());
-                return false;
-            }
+        taskCacheInvalidator.invalidateListsAfterCommit(userId);
+        if (taskRepository.deleteByIdAndUserId(userId, taskId, expectedVersion) == 1) {
+            return true;
+        }
+        RuntimeException failure = writeFailure(userId, taskId, expectedVersion);
+        if (failure instanceof OptimisticLockingFailureException) {
+            throw failure;
+        }
+        return false; // Task not found or not owned by the user
+    }
+
+    /**
+     * Version of the user's tasks, the ETag of the list and search
+     * responses: from TaskListCache when known, otherwise read in a
+     * read-only transaction, routed like the listings themselves.
+     */
+    @Transactional(readOnly = true)
+    public long getCollectionVersion(Long userId) {
+        return taskListCache.getVersion(userId, () -> taskCollectionVersionRepository.findVersion(userId));
+    }
+
+    @Transactional(readOnly = true)
+    public TaskSliceDTO getAllTasks(String priority, String status, int pageSize, int pageNumber, Long userId) {
+        Page page = findCachedTaskDtos(userId, priority, status, null, pageNumber * pageSize, pageSize);
+        if (!page.tasks().isEmpty()) {
+            log.info("Found {} tasks with priority: {} and status: {}", page.tasks().size(), priority, status);
         } else {
-            log.error("Task not found or you don't have permission to delete it: userId={}, taskId={}", userId, taskId);
+            log.info("No tasks found with priority: {} and status: {}", priority, status);
         }
-        return false; // Return false if task not found or deletion failed
+        return new TaskSliceDTO(page.tasks(), null, page.version());
     }
 
-    public List<TaskDTO> getAllTasks(String priority, String status, int pageSize, int pageNumber, Long userId) {
-        TaskSpecs taskSpecs = new TaskSpecs();
-        Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.unsorted());
-        // Fetch all tasks from the database
-        Page<TaskEntity> taskEntities = taskRepository
-                .findAll(taskSpecs.getTasksByPriorityAndStatusandUserId(userId, priority, status), pageable);
-        List<TaskDTO> taskDTOs = new ArrayList<>();
-        if (taskEntities.hasContent()) {
-            log.info("Found {} tasks with priority: {} and status: {}", taskEntities.getContent().size(), priority,
-                    status);
-            for (TaskEntity taskEntity : taskEntities.getContent()) {
-                // Mapping to DTO is Necessary to avoid data leakage
-                taskDTOs.add(toDto(taskEntity));
+    @Transactional(readOnly = true)
+    public TaskSliceDTO searchTasks(String search, int pageSize, int pageNumber, Long userId) {
+        long version = findCollectionVersion(userId);
+        if (useFullTextSearch(search)) {
+            List<TaskSearchRow> rows = taskRepository.searchByFullText(userId, search.trim(),
+                    toLikePattern(search), Float.MAX_VALUE, Long.MAX_VALUE, pageSize, pageNumber * pageSize);
+            log.info("Found {} tasks with full-text search input: {}", rows.size(), search);
+            List<TaskDTO> taskDTOs = new ArrayList<>(rows.size());
+            for (TaskSearchRow row : rows) {
+                taskDTOs.add(toDto(row));
             }
-            return taskDTOs;
+            return new TaskSliceDTO(taskDTOs, null, version);
+        }
+        TaskSpecs taskSpecs = new TaskSpecs();
+        List<TaskDTO> taskDTOs = taskRepository.findTaskDtos(taskSpecs.getBySearchinput(userId, search),
+                KEYSET_SORT, pageNumber * pageSize, pageSize);
+        if (!taskDTOs.isEmpty()) {
+            log.info("Found {} tasks with search input: {}", taskDTOs.size(), search);
         } else {
-            log.info("No tasks found with priority: {} and status: {}", priority, status);
-            return taskDTOs; // Return empty list if no tasks found
+            log.info("No tasks found with search input: {}", search);
         }
+        return new TaskSliceDTO(taskDTOs, null, version);
+    }
 
+    /**
+     * Keyset variant of {@link #getAllTasks}: returns the tasks after the given
+     * cursor without an OFFSET scan or a COUNT query.
+     */
+    @Transactional(readOnly = true)
+    public TaskSliceDTO getAllTasksByCursor(String priority, String status, int pageSize, String cursor,
+            Long userId) {
+        return findSlice(pageSize, cursor,
+                (beforeId, limit) -> findCachedTaskDtos(userId, priority, status, beforeId, 0, limit));
     }
 
-    public List<TaskDTO> searchTasks(String search, int pageSize, int pageNumber, Long userId) {
+    /**
+     * Keyset variant of {@link #searchTasks}.
+     */
+    @Transactional(readOnly = true)
+    public TaskSliceDTO searchTasksByCursor(String search, int pageSize, String cursor, Long userId) {
+        if (useFullTextSearch(search)) {
+            return searchSliceByFullText(search, pageSize, cursor, userId, false);
+        }
+        long version = findCollectionVersion(userId);
         TaskSpecs taskSpecs = new TaskSpecs();
-        Pageable pageable = PageRequest.of(pageNumber, pageSize, Sort.unsorted());
-        // Fetch all tasks from the database
-        Page<TaskEntity> taskEntities = taskRepository
-                .findAll(taskSpecs.getBySearchinput(userId, search), pageable);
-        List<TaskDTO> taskDTOs = new ArrayList<>();
-        if (taskEntities.hasContent()) {
-            log.info("Found {} tasks with search input: {}", taskEntities.getContent().size(), search);
-            for (TaskEntity taskEntity : taskEntities.getContent()) {
-                // Mapping to DTO is Necessary to avoid data leakage
-                taskDTOs.add(toDto(taskEntity));
+        Specification<TaskEntity> specification = taskSpecs.getBySearchinput(userId, search);
+        return findSlice(pageSize, cursor, (beforeId, limit) -> new Page(version, taskRepository.findTaskDtos(
+                specification.and(taskSpecs.getTasksBeforeId(beforeId)), KEYSET_SORT, 0, limit)));
+    }
+
+    /**
+     * {@link #getAllTasks} over the active and the archived tasks
+     * (TaskArchiveService), newest first. Not served from TaskListCache.
+     */
+    @Transactional(readOnly = true)
+    public TaskSliceDTO getAllTasksWithArchive(String priority, String status, int pageSize, int pageNumber,
+            Long userId) {
+        long version = findCollectionVersion(userId);
+        List<TaskRow> rows = taskRepository.findAllWithArchive(userId, priority, status, Long.MAX_VALUE, pageSize,
+                pageNumber * pageSize);
+        log.info("Found {} tasks including archived with priority: {} and status: {}", rows.size(), priority,
+                status);
+        List<TaskDTO> taskDTOs = new ArrayList<>(rows.size());
+        for (TaskRow row : rows) {
+            taskDTOs.add(toDto(row));
+        }
+        return new TaskSliceDTO(taskDTOs, null, version);
+    }
+
+    /**
+     * Keyset variant of {@link #getAllTasksWithArchive}; takes the same
+     * cursors as {@link #getAllTasksByCursor}.
+     */
+    @Transactional(readOnly = true)
+    public TaskSliceDTO getAllTasksWithArchiveByCursor(String priority, String status, int pageSize, String cursor,
+            Long userId) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page size: " + pageSize);
+        }
+        TaskCursor after = TaskCursor.decode(cursor);
+        long version = findCollectionVersion(userId);
+        List<TaskRow> rows = taskRepository.findAllWithArchive(userId, priority, status,
+                after != null ? after.getId() : Long.MAX_VALUE, pageSize + 1, 0);
+        boolean hasNext = rows.size() > pageSize;
+        List<TaskDTO> taskDTOs = new ArrayList<>(Math.min(rows.size(), pageSize));
+        for (TaskRow row : hasNext ? rows.subList(0, pageSize) : rows) {
+            taskDTOs.add(toDto(row));
+        }
+        String nextCursor = hasNext
+                ? new TaskCursor(null, taskDTOs.get(taskDTOs.size() - 1).getId()).encode()
+                : null;
+        log.info("Found {} tasks including archived in slice, hasNext: {}", taskDTOs.size(), hasNext);
+        return new TaskSliceDTO(taskDTOs, nextCursor, version);
+    }
+
+    /**
+     * {@link #searchTasks} over the active and the archived tasks. Always
+     * matches like the full-text engine, which also covers plain substrings;
+     * a blank search lists every task.
+     */
+    @Transactional(readOnly = true)
+    public TaskSliceDTO searchTasksWithArchive(String search, int pageSize, int pageNumber, Long userId) {
+        if (search == null || search.isBlank()) {
+            return getAllTasksWithArchive(null, null, pageSize, pageNumber, userId);
+        }
+        long version = findCollectionVersion(userId);
+        List<TaskSearchRow> rows = taskRepository.searchByFullTextWithArchive(userId, search.trim(),
+                toLikePattern(search), Float.MAX_VALUE, Long.MAX_VALUE, pageSize, pageNumber * pageSize);
+        log.info("Found {} tasks including archived with search input: {}", rows.size(), search);
+        List<TaskDTO> taskDTOs = new ArrayList<>(rows.size());
+        for (TaskSearchRow row : rows) {
+            taskDTOs.add(toDto(row));
+        }
+        return new TaskSliceDTO(taskDTOs, null, version);
+    }
+
+    /**
+     * Keyset variant of {@link #searchTasksWithArchive}.
+     */
+    @Transactional(readOnly = true)
+    public TaskSliceDTO searchTasksWithArchiveByCursor(String search, int pageSize, String cursor, Long userId) {
+        if (search == null || search.isBlank()) {
+            return getAllTasksWithArchiveByCursor(null, null, pageSize, cursor, userId);
+        }
+        return searchSliceByFullText(search, pageSize, cursor, userId, true);
+    }
+
+    /**
+     * GET /tasks rows from the user's TaskListCache. Rows are projected
+     * straight into TaskDTO, no managed entities and no COUNT query.
+     */
+    private Page findCachedTaskDtos(Long userId, String priority, String status, Long beforeId,
+            int offset, int limit) {
+        return taskListCache.get(userId, new TaskListKey(priority, status, beforeId, offset, limit),
+                () -> findCollectionVersion(userId), () -> {
+            TaskSpecs taskSpecs = new TaskSpecs();
+            return taskRepository.findTaskDtos(taskSpecs.getTasksByPriorityAndStatusandUserId(userId, priority,
+                    status).and(taskSpecs.getTasksBeforeId(beforeId)), KEYSET_SORT, offset, limit);
+        });
+    }
+
+    /**
+     * Version of the user's tasks for the ETag of a listing, read in the
+     * listing's transaction before its query. On the same connection, so
+     * from the same database (primary or replica) as the tasks, and a write
+     * committed in between only makes the version older than the tasks.
+     */
+    private long findCollectionVersion(Long userId) {
+        return taskCollectionVersionRepository.findVersion(userId);
+    }
+
+    /**
+     * One keyset slice; loader returns at most limit rows with an id below
+     * beforeId (null for the first slice), newest first.
+     */
+    private TaskSliceDTO findSlice(int pageSize, String cursor, BiFunction<Long, Integer, Page> loader) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page size: " + pageSize);
+        }
+        TaskCursor after = TaskCursor.decode(cursor);
+        // Fetch one extra row to know whether another slice exists
+        Page page = loader.apply(after != null ? after.getId() : null, pageSize + 1);
+        List<TaskDTO> taskDTOs = page.tasks();
+        boolean hasNext = taskDTOs.size() > pageSize;
+        if (hasNext) {
+            taskDTOs = taskDTOs.subList(0, pageSize);
+        }
+        String nextCursor = hasNext
+                ? new TaskCursor(null, taskDTOs.get(taskDTOs.size() - 1).getId()).encode()
+                : null;
+        log.info("Found {} tasks in slice, hasNext: {}", taskDTOs.size(), hasNext);
+        return new TaskSliceDTO(taskDTOs, nextCursor, page.version());
+    }
+
+    private TaskSliceDTO searchSliceByFullText(String search, int pageSize, String cursor, Long userId,
+            boolean includeArchived) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page size: " + pageSize);
+        }
+        TaskCursor after = TaskCursor.decode(cursor);
+        long version = findCollectionVersion(userId);
+        float cursorRank = Float.MAX_VALUE;
+        long cursorId = Long.MAX_VALUE;
+        if (after != null) {
+            if (after.getSortKey() == null) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            cursorRank = Float.parseFloat(after.getSortKey());
+            cursorId = after.getId();
+        }
+        List<TaskSearchRow> rows = includeArchived
+                ? taskRepository.searchByFullTextWithArchive(userId, search.trim(), toLikePattern(search),
+                        cursorRank, cursorId, pageSize + 1, 0)
+                : taskRepository.searchByFullText(userId, search.trim(), toLikePattern(search),
+                        cursorRank, cursorId, pageSize + 1, 0);
+        boolean hasNext = rows.size() > pageSize;
+        List<TaskDTO> taskDTOs = new ArrayList<>(Math.min(rows.size(), pageSize));
+        TaskSearchRow last = null;
+        for (TaskSearchRow row : hasNext ? rows.subList(0, pageSize) : rows) {
+            taskDTOs.add(toDto(row));
+            last = row;
+        }
+        String nextCursor = hasNext
+                ? new TaskCursor(Float.toString(last.getSearchRank()), last.getId()).encode()
+                : null;
+        log.info("Found {} tasks in full-text slice, hasNext: {}", taskDTOs.size(), hasNext);
+        return new TaskSliceDTO(taskDTOs, nextCursor, version);
+    }
+
+    private boolean useFullTextSearch(String search) {
+        // Blank input lists every task, which the specification path already handles
+        return SEARCH_ENGINE_FULLTEXT.equalsIgnoreCase(searchEngine) && search != null && !search.isBlank();
+    }
+
+    static String toLikePattern(String search) {
+        String escaped = search.trim()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private static TaskDTO toDto(TaskRow row) {
+        return new TaskDTO(
+                row.getId(),
+                row.getTitle(),
+                row.getDescription(),
+                PriorityEnum.fromName(row.getPriority()),
+                StatusEnum.fromName(row.getStatus()),
+                row.getVersion());
+    }
+
+    /**
+     * Validates every operation first and only then applies all of them in one
+     * transaction: creates go out as batched inserts, updates as batched
+     * updates on flush and deletes as a single ownership-checked statement.
+     * If anything is invalid the returned result only carries the errors.
+     */
+    @Transactional
+    public BulkTaskResultDTO bulkTasks(Long userId, List<BulkTaskOperationDTO> operations) {
+        BulkTaskResultDTO result = new BulkTaskResultDTO();
+        if (operations == null || operations.isEmpty()) {
+            result.getErrors().add("No operations supplied");
+            return result;
+        }
+        if (operations.size() > bulkMaxOperations) {
+            result.getErrors().add("Too many operations: " + operations.size() + ", max is " + bulkMaxOperations);
+            return result;
+        }
+
+        List<TaskEntity> creates = new ArrayList<>();
+        Map<Long, BulkTaskOperationDTO> updates = new HashMap<>();
+        Set<Long> deletes = new HashSet<>();
+        UserEntity user = new UserEntity();
+        user.setId(userId);
+        for (int i = 0; i < operations.size(); i++) {
+            BulkTaskOperationDTO operation = operations.get(i);
+            String error = validateOperation(operation, updates, deletes);
+            if (error != null) {
+                result.getErrors().add("operations[" + i + "]: " + error);
+                continue;
+            }
+            switch (operation.getOp()) {
+                case CREATE -> creates.add(toEntity(user, new TaskDTO(null, operation.getTitle(),
+                        operation.getDescription(), PriorityEnum.valueOf(operation.getPriority().toUpperCase()),
+                        StatusEnum.valueOf(operation.getStatus().toUpperCase()))));
+                case UPDATE -> updates.put(operation.getTaskId(), operation);
+                case DELETE -> deletes.add(operation.getTaskId());
+            }
+        }
+
+        // Ownership of every referenced task is checked with one query before writing
+        Set<Long> referencedIds = new HashSet<>(updates.keySet());
+        referencedIds.addAll(deletes);
+        List<TaskEntity> owned = referencedIds.isEmpty() ? List.of()
+                : taskRepository.findAll(new TaskSpecs().getTasksByIdsAndUserId(userId, referencedIds));
+        if (owned.size() != referencedIds.size()) {
+            Set<Long> missing = new HashSet<>(referencedIds);
+            owned.forEach(task -> missing.remove(task.getId()));
+            result.getErrors().add("Tasks not found or you don't have permission to change them: " + missing);
+        }
+        if (result.hasErrors()) {
+            log.error("Rejected bulk request for user id: {} with {} errors", userId, result.getErrors().size());
+            return result;
+        }
+
+        for (TaskEntity taskEntity : owned) {
+            BulkTaskOperationDTO update = updates.get(taskEntity.getId());
+            if (update != null) {
+                updateEntity(taskEntity, update.getTitle(), update.getDescription(),
+                        PriorityEnum.valueOf(update.getPriority().toUpperCase()),
+                        StatusEnum.valueOf(update.getStatus().toUpperCase()));
+            }
+        }
+        for (TaskEntity savedTask : taskRepository.saveAll(creates)) {
+            result.getCreatedIds().add(savedTask.getId());
+        }
+        // Dirty updates must reach the database before the bulk delete
+        taskRepository.flush();
+        taskCacheInvalidator.invalidateListsAfterCommit(userId);
+        result.setUpdated(updates.size());
+        result.setDeleted(deletes.isEmpty() ? 0 : taskRepository.deleteAllByIdsAndUserId(userId, deletes));
+        log.info("Bulk request for user id: {} created {}, updated {}, deleted {} tasks", userId,
+                result.getCreatedIds().size(), result.getUpdated(), result.getDeleted());
+        return result;
+    }
+
+    private String validateOperation(BulkTaskOperationDTO operation, Map<Long, BulkTaskOperationDTO> updates,
+            Set<Long> deletes) {
+        if (operation == null || operation.getOp() == null) {
+            return "Missing op";
+        }
+        if (operation.getOp() != BulkOperationEnum.CREATE) {
+            if (operation.getTaskId() == null) {
+                return "Missing taskId";
+            }
+            if (updates.containsKey(operation.getTaskId()) || deletes.contains(operation.getTaskId())) {
+                return "Duplicate taskId: " + operation.getTaskId();
+            }
+            if (operation.getOp() == BulkOperationEnum.DELETE) {
+                return null;
+            }
+        }
+        if (operation.getTitle() == null || operation.getTitle().isBlank()) {
+            return "Missing title";
+        }
+        if (operation.getDescription() == null) {
+            return "Missing description";
+        }
+        if (operation.getTitle().length() > MAX_TITLE_LENGTH) {
+            return "title is longer than " + MAX_TITLE_LENGTH + " characters";
+        }
+        if (operation.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "description is longer than " + MAX_DESCRIPTION_LENGTH + " characters";
+        }
+        if (!isEnumName(PriorityEnum.class, operation.getPriority())) {
+            return "Invalid priority value: " + operation.getPriority();
+        }
+        if (!isEnumName(StatusEnum.class, operation.getStatus())) {
+            return "Invalid status value: " + operation.getStatus();
+        }
+        return null;
+    }
+
+    private static <E extends Enum<E>> boolean isEnumName(Class<E> enumType, String value) {
+        if (value == null) {
+            return false;
+        }
+        for (E constant : enumType.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(value)) {
+                return true;
             }
-            return taskDTOs;
-        } else {
-            log.info("No tasks found with search input: {}", search);
-            return taskDTOs; // Return empty list if no tasks found
         }
+        return false;
     }
 }
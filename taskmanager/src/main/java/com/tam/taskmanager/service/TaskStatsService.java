@@ -0,0 +1,84 @@
+package com.tam.taskmanager.service;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.tam.taskmanager.dto.task.TaskStatsDTO;
+import com.tam.taskmanager.enums.PriorityEnum;
+import com.tam.taskmanager.enums.StatusEnum;
+import com.tam.taskmanager.repository.TaskStatsRepository;
+import com.tam.taskmanager.repository.TaskStatsRepository.DriftScan;
+import com.tam.taskmanager.repository.TaskStatsRepository.TaskStatsCount;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-user task counts by status and priority, served from the trigger
+ * maintained task_stats table. A background job compares the counters
+ * with the tasks, a batch of users per run, and recounts users that
+ * drifted (rows changed with triggers disabled, manual fixes, restores).
+ */
+@Slf4j
+@Service
+public class TaskStatsService {
+
+    @Autowired
+    private TaskStatsRepository taskStatsRepository;
+
+    @Value("${app.stats.reconcile-batch-size:500}")
+    private int reconcileBatchSize;
+
+    // Last user id compared by the previous reconciliation run
+    private volatile long reconcileCursor;
+
+    private final Counter reconciledUsers;
+
+    public TaskStatsService(MeterRegistry meterRegistry) {
+        this.reconciledUsers = Counter.builder("taskmanager.task.stats.reconciled.users")
+                .description("Users whose task counters were recounted by the reconciliation job")
+                .register(meterRegistry);
+    }
+
+    public TaskStatsDTO getStats(Long userId) {
+        TaskStatsDTO stats = new TaskStatsDTO();
+        for (TaskStatsCount count : taskStatsRepository.findByUserId(userId)) {
+            try {
+                stats.add(StatusEnum.fromName(count.status()), PriorityEnum.fromName(count.priority()),
+                        count.taskCount());
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring task counter with unknown status: {} or priority: {}", count.status(),
+                        count.priority());
+            }
+        }
+        log.info("Found {} tasks in stats for user id: {}", stats.getTotal(), userId);
+        return stats;
+    }
+
+    /**
+     * Compares the counters of the next batch of users (by id) with their
+     * tasks and recounts the drifted ones, in one short transaction. Each run
+     * continues where the previous one stopped and starts over after the last
+     * user, so the cost of a run does not grow with the number of users.
+     */
+    @Scheduled(initialDelayString = "${app.stats.reconcile-initial-delay:5m}",
+            fixedDelayString = "${app.stats.reconcile-interval:5m}")
+    public void reconcile() {
+        DriftScan scan = taskStatsRepository.findDriftedUserIds(reconcileCursor, reconcileBatchSize);
+        // Instance-local; a restart only rescans from the first user
+        reconcileCursor = scan.scannedUsers() < reconcileBatchSize ? 0 : scan.lastUserId();
+        List<Long> drifted = scan.driftedUserIds();
+        if (drifted.isEmpty()) {
+            log.info("Task stats reconciliation found no drift in {} users", scan.scannedUsers());
+            return;
+        }
+        int rows = taskStatsRepository.recount(drifted);
+        reconciledUsers.increment(drifted.size());
+        log.warn("Recounted {} task counters of {} users: {}", rows, drifted.size(), drifted);
+    }
+}
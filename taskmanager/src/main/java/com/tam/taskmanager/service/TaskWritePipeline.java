@@ -0,0 +1,314 @@
+package com.tam.taskmanager.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import com.tam.taskmanager.config.TaskCacheInvalidator;
+import com.tam.taskmanager.enums.WriteDurabilityEnum;
+import com.tam.taskmanager.repository.TaskIdAllocator;
+import com.tam.taskmanager.repository.TaskInsertRepository;
+import com.tam.taskmanager.repository.TaskInsertRepository.NewTask;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Group commit for task creation. Instead of one insert and one commit per
+ * request, created tasks go into a bounded queue and a single writer thread
+ * inserts them in batches of up to flush-size, one transaction per batch,
+ * waiting at most max-latency after the oldest queued task. Ids come from
+ * a prefetched TaskIdAllocator block, so the id is known before the insert.
+ * A full queue rejects the task after enqueue-timeout (503 Retry-After).
+ * With durability COMMITTED the request waits for its batch to commit;
+ * with ACCEPTED it returns once queued, and a GET right after it may not
+ * find the task yet.
+ */
+@Slf4j
+@Service
+public class TaskWritePipeline implements SmartLifecycle {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private record PendingTask(NewTask task, CompletableFuture<Void> committed, long queuedNanos) {
+    }
+
+    @Autowired
+    private TaskIdAllocator taskIdAllocator;
+
+    @Autowired
+    private TaskInsertRepository taskInsertRepository;
+
+    @Autowired
+    private TaskCacheInvalidator taskCacheInvalidator;
+
+    @Value("${app.write-pipeline.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.write-pipeline.flush-size:500}")
+    private int flushSize;
+
+    @Value("${app.write-pipeline.max-latency:5ms}")
+    private Duration maxLatency;
+
+    @Value("${app.write-pipeline.enqueue-timeout:100ms}")
+    private Duration enqueueTimeout;
+
+    @Value("${app.write-pipeline.durability:COMMITTED}")
+    private String durabilityName;
+
+    @Value("${app.write-pipeline.commit-timeout:5s}")
+    private Duration commitTimeout;
+
+    @Value("${app.write-pipeline.id-prefetch:500}")
+    private int idPrefetch;
+
+    @Value("${app.write-pipeline.shutdown-timeout:30s}")
+    private Duration shutdownTimeout;
+
+    private final BlockingQueue<PendingTask> queue;
+    private final Counter rejected;
+    private final Counter failed;
+    private final DistributionSummary batchSize;
+    private final Timer flushTimer;
+
+    private final ReentrantLock idLock = new ReentrantLock();
+    private long[] ids = new long[0];
+    private int nextId;
+
+    private WriteDurabilityEnum durability;
+    private volatile boolean running;
+    private Thread writer;
+
+    public TaskWritePipeline(@Value("${app.write-pipeline.queue-capacity:10000}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("taskmanager.task.pipeline.queued", queue, BlockingQueue::size)
+                .description("Created tasks waiting in the write pipeline")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("taskmanager.task.pipeline.rejected")
+                .description("Task creations rejected because the write pipeline queue was full")
+                .register(meterRegistry);
+        this.failed = Counter.builder("taskmanager.task.pipeline.failed")
+                .description("Queued tasks that could not be inserted")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("taskmanager.task.pipeline.batch.size")
+                .description("Tasks inserted per write pipeline commit")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("taskmanager.task.pipeline.flush")
+                .description("Time to insert and commit one write pipeline batch")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues a task validated by TaskService.createTask (priority and status
+     * are enum names, title and description fit their columns: a failed
+     * insert can no longer be reported to an ACCEPTED request) and returns
+     * its id; with COMMITTED only once it is committed.
+     * Throws RejectedExecutionException when the queue stays full.
+     */
+    public Long submit(Long userId, String title, String description, String priority, String status) {
+        if (!running) {
+            throw new RejectedExecutionException("Write pipeline is not running");
+        }
+        long id = nextId();
+        PendingTask pending = new PendingTask(new NewTask(id, userId, title, description, priority, status),
+                durability == WriteDurabilityEnum.COMMITTED ? new CompletableFuture<>() : null, System.nanoTime());
+        try {
+            if (!queue.offer(pending, enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new RejectedExecutionException("Write pipeline queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while queueing task", e);
+        }
+        if (pending.committed() != null) {
+            try {
+                pending.committed().get(commitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Task " + id + " was not inserted: " + e.getCause().getMessage(),
+                        e.getCause());
+            } catch (TimeoutException e) {
+                // Still queued; it may be committed later
+                throw new IllegalStateException("Task " + id + " was not committed within " + commitTimeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for task " + id);
+            }
+        }
+        return id;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Task write pipeline disabled");
+            return;
+        }
+        durability = WriteDurabilityEnum.fromName(durabilityName);
+        if (durability == null) {
+            throw new IllegalStateException("Invalid app.write-pipeline.durability: " + durabilityName);
+        }
+        running = true;
+        writer = Thread.ofPlatform().daemon().name("task-write-pipeline").start(this::write);
+        log.info("Task write pipeline: flushSize={}, maxLatency={}, durability={}", flushSize, maxLatency,
+                durability);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        try {
+            // The writer flushes what is still queued before it exits
+            writer.join(shutdownTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive() || !queue.isEmpty()) {
+            log.error("Task write pipeline stopped with {} tasks not inserted", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Starts before and stops after the web server (WebServerStartStopLifecycle is DEFAULT_PHASE - 2048),
+    // so every accepted request is flushed before shutdown
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private long nextId() {
+        idLock.lock();
+        try {
+            if (nextId == ids.length) {
+                ids = taskIdAllocator.allocate(idPrefetch);
+                nextId = 0;
+            }
+            return ids[nextId++];
+        } finally {
+            idLock.unlock();
+        }
+    }
+
+    private void write() {
+        List<PendingTask> batch = new ArrayList<>(flushSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                PendingTask first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = first.queuedNanos() + maxLatency.toNanos();
+                while (batch.size() < flushSize) {
+                    queue.drainTo(batch, flushSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= flushSize || wait <= 0 || !running) {
+                        break;
+                    }
+                    PendingTask next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // Not interrupted by stop(); flush what is left without waiting
+            batch.addAll(queue);
+            queue.clear();
+            flush(batch);
+        }
+    }
+
+    private void flush(List<PendingTask> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // The change-stamp trigger locks each task's owner; the same lock order in every
+        // batch keeps concurrent writers (other instances) from deadlocking
+        batch.sort(Comparator.comparingLong((PendingTask p) -> p.task().userId()));
+        List<NewTask> tasks = batch.stream().map(PendingTask::task).toList();
+        Timer.Sample sample = Timer.start();
+        try {
+            taskInsertRepository.insertAll(tasks);
+            batch.stream().map(p -> p.task().userId()).distinct().forEach(this::invalidate);
+            batch.forEach(p -> complete(p, null));
+        } catch (RuntimeException e) {
+            // Usually one bad row (e.g. its user was deleted meanwhile); keep the others
+            log.error("Error inserting {} queued tasks, retrying one by one: {}", batch.size(), e.getMessage());
+            for (PendingTask pending : batch) {
+                try {
+                    taskInsertRepository.insert(pending.task());
+                    invalidate(pending.task().userId());
+                    complete(pending, null);
+                } catch (RuntimeException rowError) {
+                    failed.increment();
+                    log.error("Queued task id: {} of user id: {} not inserted: {}", pending.task().id(),
+                            pending.task().userId(), rowError.getMessage());
+                    complete(pending, rowError);
+                }
+            }
+        }
+        sample.stop(flushTimer);
+        batchSize.record(batch.size());
+    }
+
+    /**
+     * Plain JDBC inserts bypass Hibernate, cached task lists would not see
+     * the new rows. Runs before the writers are answered, so their next
+     * read is not served from the user's old pages.
+     */
+    private void invalidate(long userId) {
+        try {
+            taskCacheInvalidator.invalidateCommitted(userId, List.of());
+        } catch (RuntimeException e) {
+            // Must not stop the writer thread
+            log.error("Error invalidating the task cache of user id: {} after a write pipeline flush: {}", userId,
+                    e.getMessage());
+        }
+    }
+
+    private static void complete(PendingTask pending, Throwable error) {
+        if (pending.committed() == null) {
+            return;
+        }
+        if (error == null) {
+            pending.committed().complete(null);
+        } else {
+            pending.committed().completeExceptionally(error);
+        }
+    }
+}
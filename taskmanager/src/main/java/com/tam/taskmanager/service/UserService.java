@@ -1,10 +1,15 @@
 package com.tam.taskmanager.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.tam.taskmanager.config.ReplicaRoutingDataSource;
+import com.tam.taskmanager.config.RequestTimings;
 import com.tam.taskmanager.entity.UserEntity;
+import com.tam.taskmanager.enums.TimingPhaseEnum;
 import com.tam.taskmanager.repository.UserRepository;
 
 import lombok.extern.slf4j.Slf4j;
@@ -19,40 +24,54 @@ public class UserService {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    Cache<String, Long> userIdCache;
+
     public Long getUserId(Authentication authentication) {
-        if (authentication != null && securityService.getKeycloakUserId(authentication) != null) {
-            String keycloakId = securityService.getKeycloakUserId(authentication);
-            log.debug("Looking up user with keycloak ID: {}", keycloakId);
+        long start = System.nanoTime();
+        try {
+            return lookupUserId(authentication);
+        } finally {
+            RequestTimings.record(TimingPhaseEnum.USER, start);
+        }
+    }
 
-            return userRepository.findByKeycloakUserId(keycloakId)
-                    .map(UserEntity::getId)
-                    .orElseGet(() -> createNewUser(authentication));
+    private Long lookupUserId(Authentication authentication) {
+        String keycloakId = authentication != null ? securityService.getKeycloakUserId(authentication) : null;
+        if (keycloakId != null) {
+            // Caffeine runs the loader at most once per key, so a burst of first
+            // requests from a new user waits on a single lookup/insert.
+            return userIdCache.get(keycloakId, id -> loadUserId(id, authentication));
         }
 
         log.error("Authentication is null or invalid");
         throw new RuntimeException("Invalid authentication");
     }
 
-    private Long createNewUser(Authentication authentication) {
+    private Long loadUserId(String keycloakId, Authentication authentication) {
+        log.debug("Looking up user with keycloak ID: {}", keycloakId);
+        return userRepository.findIdByKeycloakUserId(keycloakId)
+                .orElseGet(() -> createNewUser(keycloakId, authentication));
+    }
+
+    private Long createNewUser(String keycloakId, Authentication authentication) {
         log.info("Creating new user as no existing user found for authentication: {}", authentication.getName());
-        // Create a new UserEntity and save it to the database
-        // Assuming you have a method to create a new user entity
-        // This is a placeholder, you might want to set other properties as needed
-        String keycloakId = securityService.getKeycloakUserId(authentication);
-        if (keycloakId == null) {
-            log.error("Keycloak user ID is null for authentication: {}", authentication.getName());
-            throw new RuntimeException("Keycloak user ID is null");
-        }
-        log.info("Creating new user for keycloak ID: {}", keycloakId);
         // Create a new UserEntity with the keycloak ID and other necessary details
         UserEntity newUser = new UserEntity();
         newUser.setKeycloakUserId(keycloakId);
         newUser.setUserName(securityService.getUserName(authentication));
         log.info("Creating new user for keycloak ID: {}", keycloakId);
-        // You might want to set other user properties here from the authentication
-        // object
-        UserEntity savedUser = userRepository.saveAndFlush(newUser);
-        log.info("Created new user with ID: {} for keycloak ID: {}", savedUser.getId(), keycloakId);
-        return savedUser.getId();
+        try {
+            UserEntity savedUser = userRepository.saveAndFlush(newUser);
+            log.info("Created new user with ID: {} for keycloak ID: {}", savedUser.getId(), keycloakId);
+            return savedUser.getId();
+        } catch (DataIntegrityViolationException e) {
+            // Another instance inserted the same keycloak user first
+            log.info("User for keycloak ID: {} was created concurrently, reloading", keycloakId);
+            // The replica may not have that row yet
+            return ReplicaRoutingDataSource.onPrimary(() -> userRepository.findByKeycloakUserId(keycloakId))
+                    .map(UserEntity::getId)
+                    .orElseThrow(() -> e);
+        }
     }
 }
@@ -0,0 +1,7 @@
+--failOnError=false
+-- Composite index backing keyset pagination:
+-- WHERE assigned_user_id = ? AND id < ? ORDER BY id DESC LIMIT ?
+CREATE INDEX idx_task_assigned_user_id_desc ON task("assigned_user_id", "id" DESC);
+
+-- The single column index is a prefix of the composite one
+DROP INDEX IF EXISTS idx_task_assigned_user;
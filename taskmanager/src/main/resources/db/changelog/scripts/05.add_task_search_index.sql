@@ -0,0 +1,26 @@
+--failOnError=false
+-- Full-text and trigram search over task title/description
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+-- Widen title to the 255 characters of description, the default length of the
+-- entity's String columns; column types are locked once search_vector depends on them
+ALTER TABLE task ALTER COLUMN "title" TYPE VARCHAR(255);
+ALTER TABLE task ALTER COLUMN "description" TYPE VARCHAR(255);
+
+-- Maintained by Postgres on every insert/update, title ranks above description
+ALTER TABLE task
+ADD COLUMN "search_vector" tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce("title", '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce("description", '')), 'B')
+) STORED;
+
+-- Leading assigned_user_id keeps each search scoped to one user's postings
+CREATE INDEX idx_task_search_vector ON task USING GIN ("assigned_user_id", "search_vector");
+
+-- Trigram fallback for substring (ILIKE) and typo (%) matching
+CREATE INDEX idx_task_search_trgm ON task USING GIN (
+    "assigned_user_id",
+    "title" gin_trgm_ops,
+    "description" gin_trgm_ops
+);
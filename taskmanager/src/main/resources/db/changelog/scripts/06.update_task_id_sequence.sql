@@ -0,0 +1,8 @@
+--failOnError=false
+-- TaskEntity draws ids from task_id_seq with a pooled optimizer (allocationSize = 50):
+-- each nextval reserves a block of 50 ids so Hibernate can batch inserts.
+-- task.id is still the int4 of SERIAL (01), and so are its copies in task_partitioned and
+-- task_archive (LIKE task), so the sequence stays int4 as well: it fails with "reached
+-- maximum value" instead of handing out ids the column cannot store. The unused rest of a
+-- block is lost when an instance stops; widening task.id to bigint needs its own changeset.
+ALTER SEQUENCE task_id_seq AS INTEGER INCREMENT BY 50;
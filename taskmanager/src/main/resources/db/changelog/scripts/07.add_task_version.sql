@@ -0,0 +1,4 @@
+--failOnError=false
+-- Optimistic lock version for TaskEntity (@Version), exposed to clients as the task ETag
+ALTER TABLE task
+ADD COLUMN "version" BIGINT NOT NULL DEFAULT 0;
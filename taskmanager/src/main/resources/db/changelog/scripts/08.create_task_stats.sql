@@ -0,0 +1,106 @@
+--liquibase formatted sql
+--changeset taskmanager:08.create_task_stats splitStatements:false
+-- Formatted SQL so the function body is not split on ';' (the driver handles the $$ quoting)
+
+-- Task counts per user by status and priority, read by GET /tasks/stats with one
+-- primary key range scan instead of a GROUP BY over task
+CREATE TABLE task_stats (
+    "user_id" BIGINT NOT NULL,
+    "status" VARCHAR(255) NOT NULL,
+    "priority" VARCHAR(255) NOT NULL,
+    "task_count" BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY ("user_id", "status", "priority")
+);
+
+-- Key of the per-user write lock: a transaction-level advisory lock on it is taken by the task
+-- triggers (here, task_event_publish, task_change_stamp) and held until commit, so it
+-- serializes all task writes of one user. The lock class in the high 32 bits, the user id
+-- in the low 32 bits; users whose ids differ by a multiple of 2^32 share a key, which only
+-- serializes their writes too.
+CREATE OR REPLACE FUNCTION task_user_lock_key(user_id BIGINT) RETURNS BIGINT AS $$
+    SELECT (CAST(hashtext('task_event') AS BIGINT) << 32) | (user_id & CAST(x'FFFFFFFF' AS BIGINT))
+$$ LANGUAGE sql IMMUTABLE;
+
+-- Applies the net change of one statement in the same transaction as the write, whatever
+-- issued it (JPA, native updates, bulk batches, COPY imports, ON DELETE SET NULL).
+-- Statement level with transition tables: a 5000 row COPY chunk costs one upsert per
+-- (user, status, priority) group, not one per row. Groups are upserted in key order so
+-- concurrent writers of the same user lock counter rows in the same order.
+-- Takes the write lock of every user of the statement first (in id order): the recount of
+-- TaskStatsRepository takes it as well, so counters of a user are never changed by a
+-- writer while they are recounted.
+CREATE OR REPLACE FUNCTION task_stats_apply() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM pg_advisory_xact_lock(task_user_lock_key(locked.user_id))
+        FROM (SELECT DISTINCT "assigned_user_id" AS user_id FROM new_rows
+              WHERE "assigned_user_id" IS NOT NULL ORDER BY 1) locked;
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM pg_advisory_xact_lock(task_user_lock_key(locked.user_id))
+        FROM (SELECT DISTINCT "assigned_user_id" AS user_id FROM old_rows
+              WHERE "assigned_user_id" IS NOT NULL ORDER BY 1) locked;
+    ELSE
+        PERFORM pg_advisory_xact_lock(task_user_lock_key(locked.user_id))
+        FROM (SELECT "assigned_user_id" AS user_id FROM new_rows WHERE "assigned_user_id" IS NOT NULL
+              UNION
+              SELECT "assigned_user_id" FROM old_rows WHERE "assigned_user_id" IS NOT NULL
+              ORDER BY 1) locked;
+    END IF;
+
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO task_stats AS s ("user_id", "status", "priority", "task_count")
+        SELECT "assigned_user_id", "status", "priority", count(*)
+        FROM new_rows
+        WHERE "assigned_user_id" IS NOT NULL
+        GROUP BY 1, 2, 3
+        ORDER BY 1, 2, 3
+        ON CONFLICT ("user_id", "status", "priority")
+        DO UPDATE SET "task_count" = s."task_count" + EXCLUDED."task_count";
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO task_stats AS s ("user_id", "status", "priority", "task_count")
+        SELECT "assigned_user_id", "status", "priority", -count(*)
+        FROM old_rows
+        WHERE "assigned_user_id" IS NOT NULL
+        GROUP BY 1, 2, 3
+        ORDER BY 1, 2, 3
+        ON CONFLICT ("user_id", "status", "priority")
+        DO UPDATE SET "task_count" = s."task_count" + EXCLUDED."task_count";
+    ELSE
+        -- Title/description/version-only updates net out to zero and write nothing
+        INSERT INTO task_stats AS s ("user_id", "status", "priority", "task_count")
+        SELECT "assigned_user_id", "status", "priority", sum(delta)
+        FROM (
+            SELECT "assigned_user_id", "status", "priority", 1 AS delta FROM new_rows
+            UNION ALL
+            SELECT "assigned_user_id", "status", "priority", -1 AS delta FROM old_rows
+        ) changes
+        WHERE "assigned_user_id" IS NOT NULL
+        GROUP BY 1, 2, 3
+        HAVING sum(delta) <> 0
+        ORDER BY 1, 2, 3
+        ON CONFLICT ("user_id", "status", "priority")
+        DO UPDATE SET "task_count" = s."task_count" + EXCLUDED."task_count";
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables need one trigger per event
+CREATE TRIGGER task_stats_insert AFTER INSERT ON task
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_stats_apply();
+
+CREATE TRIGGER task_stats_update AFTER UPDATE ON task
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_stats_apply();
+
+CREATE TRIGGER task_stats_delete AFTER DELETE ON task
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_stats_apply();
+
+-- Existing tasks
+INSERT INTO task_stats ("user_id", "status", "priority", "task_count")
+SELECT "assigned_user_id", "status", "priority", count(*)
+FROM task
+WHERE "assigned_user_id" IS NOT NULL
+GROUP BY 1, 2, 3;
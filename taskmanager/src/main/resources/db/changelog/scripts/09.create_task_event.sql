@@ -0,0 +1,116 @@
+--liquibase formatted sql
+--changeset taskmanager:09.create_task_event splitStatements:false
+-- Formatted SQL so the function bodies are not split on ';' (the driver handles the $$ quoting)
+
+-- Task change events per user, streamed by GET /tasks/events and replayed from on reconnect
+-- (Last-Event-ID). Only the task id is kept; the current task row is joined in when sending.
+CREATE TABLE task_event (
+    "id" BIGSERIAL PRIMARY KEY,
+    "user_id" BIGINT NOT NULL,
+    "task_id" BIGINT,
+    "event_type" VARCHAR(16) NOT NULL,
+    "created_at" TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Replay and catch-up: WHERE user_id = ? AND id > ? ORDER BY id
+CREATE INDEX idx_task_event_user_id ON task_event ("user_id", "id");
+-- Retention purge; rows are appended in time order, so BRIN stays tiny
+CREATE INDEX idx_task_event_created_at ON task_event USING BRIN ("created_at");
+
+-- Records the events of one statement and announces them with one NOTIFY per user on the
+-- task_events channel, delivered when the transaction commits. Payload
+-- "userId:lastEventId:taskIds:origin": taskIds lists the written task ids (comma separated,
+-- empty when there are more than 100) and origin is the application_name of the writing
+-- session, with which an instance recognizes (and skips invalidating for) its own writes.
+-- Takes the write lock of every user of the statement (task_user_lock_key, 08), which is
+-- held until the transaction commits or rolls back: all task writes of a user are serialized
+-- from here, including long imports and bulk requests of that user.
+CREATE OR REPLACE FUNCTION task_event_publish(user_ids BIGINT[], task_ids BIGINT[], event_types VARCHAR[])
+RETURNS void AS $$
+DECLARE
+    payloads TEXT[];
+    origin TEXT := current_setting('application_name');
+BEGIN
+    IF user_ids IS NULL THEN
+        RETURN;
+    END IF;
+    -- One event writer per user from here until commit, so the event ids of a user become
+    -- visible in id order and "id > last seen" never skips a late commit
+    PERFORM pg_advisory_xact_lock(task_user_lock_key(locked.user_id))
+    FROM (SELECT DISTINCT u AS user_id FROM unnest(user_ids) AS u WHERE u IS NOT NULL ORDER BY 1) locked;
+
+    IF cardinality(user_ids) > 1000 THEN
+        -- Imports and mass deletes: one RESYNC per user (client refetches) instead of an event per task
+        WITH inserted AS (
+            INSERT INTO task_event ("user_id", "task_id", "event_type")
+            SELECT DISTINCT u, CAST(NULL AS BIGINT), 'RESYNC'
+            FROM unnest(user_ids) AS u
+            WHERE u IS NOT NULL
+            RETURNING "user_id", "id"
+        )
+        SELECT array_agg(i.user_id || ':' || i.last_id || '::' || origin) INTO payloads
+        FROM (SELECT "user_id", max("id") AS last_id FROM inserted GROUP BY 1) i;
+    ELSE
+        WITH inserted AS (
+            INSERT INTO task_event ("user_id", "task_id", "event_type")
+            SELECT c.user_id, c.task_id, c.event_type
+            FROM unnest(user_ids, task_ids, event_types) AS c(user_id, task_id, event_type)
+            WHERE c.user_id IS NOT NULL
+            ORDER BY c.user_id, c.task_id
+            RETURNING "user_id", "id", "task_id"
+        )
+        SELECT array_agg(i.user_id || ':' || i.last_id || ':' || i.task_ids || ':' || origin) INTO payloads
+        FROM (
+            SELECT "user_id", max("id") AS last_id,
+                   CASE WHEN count(DISTINCT "task_id") <= 100
+                        THEN coalesce(string_agg(DISTINCT CAST("task_id" AS TEXT), ','), '') ELSE '' END AS task_ids
+            FROM inserted
+            GROUP BY 1
+        ) i;
+    END IF;
+
+    PERFORM pg_notify('task_events', p) FROM unnest(payloads) AS p;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Every write to task, whichever path issued it. Moving a task to another user (including
+-- ON DELETE SET NULL) is a DELETED event for the old owner and CREATED for the new one.
+CREATE OR REPLACE FUNCTION task_event_capture() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM task_event_publish(array_agg("assigned_user_id"), array_agg("id"),
+                array_agg(CAST('CREATED' AS VARCHAR)))
+        FROM new_rows;
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM task_event_publish(array_agg("assigned_user_id"), array_agg("id"),
+                array_agg(CAST('DELETED' AS VARCHAR)))
+        FROM old_rows;
+    ELSE
+        PERFORM task_event_publish(array_agg(c.user_id), array_agg(c.task_id), array_agg(c.event_type))
+        FROM (
+            SELECT n."assigned_user_id" AS user_id, n."id" AS task_id,
+                   CAST(CASE WHEN o."assigned_user_id" IS NOT DISTINCT FROM n."assigned_user_id"
+                             THEN 'UPDATED' ELSE 'CREATED' END AS VARCHAR) AS event_type
+            FROM new_rows n JOIN old_rows o ON o."id" = n."id"
+            UNION ALL
+            SELECT o."assigned_user_id", o."id", CAST('DELETED' AS VARCHAR)
+            FROM old_rows o JOIN new_rows n ON n."id" = o."id"
+            WHERE o."assigned_user_id" IS DISTINCT FROM n."assigned_user_id"
+        ) c;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables need one trigger per event
+CREATE TRIGGER task_event_insert AFTER INSERT ON task
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_event_capture();
+
+CREATE TRIGGER task_event_update AFTER UPDATE ON task
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_event_capture();
+
+CREATE TRIGGER task_event_delete AFTER DELETE ON task
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_event_capture();
@@ -0,0 +1,104 @@
+--liquibase formatted sql
+--changeset taskmanager:10.add_task_change_seq splitStatements:false
+-- Formatted SQL so the function bodies are not split on ';' (the driver handles the $$ quoting)
+
+-- Change sequence for delta sync (GET /tasks/changes?since=): every insert and update of a
+-- task takes the next value, every delete (or move to another user) leaves a tombstone with one
+CREATE SEQUENCE task_change_seq;
+
+-- created_at/updated_at were left commented out in 01.create_task_table.sql; existing rows get
+-- the migration time. The volatile change_seq default rewrites the table once, numbering the
+-- existing rows.
+ALTER TABLE task
+ADD COLUMN "created_at" TIMESTAMPTZ NOT NULL DEFAULT now(),
+ADD COLUMN "updated_at" TIMESTAMPTZ NOT NULL DEFAULT now(),
+ADD COLUMN "change_seq" BIGINT NOT NULL DEFAULT nextval('task_change_seq');
+
+ALTER SEQUENCE task_change_seq OWNED BY task."change_seq";
+
+-- WHERE assigned_user_id = ? AND change_seq > ? ORDER BY change_seq LIMIT ?
+CREATE INDEX idx_task_assigned_user_change_seq ON task ("assigned_user_id", "change_seq");
+
+CREATE TABLE task_tombstone (
+    "task_id" BIGINT NOT NULL,
+    "user_id" BIGINT NOT NULL,
+    "change_seq" BIGINT NOT NULL,
+    "deleted_at" TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_task_tombstone_user_change_seq ON task_tombstone ("user_id", "change_seq");
+-- Retention purge; rows are appended in time order, so BRIN stays tiny
+CREATE INDEX idx_task_tombstone_deleted_at ON task_tombstone USING BRIN ("deleted_at");
+
+-- Highest change_seq of the purged tombstones: a client synced before it may have missed
+-- deletes and has to start over
+CREATE TABLE task_change_horizon (
+    "id" SMALLINT PRIMARY KEY CHECK ("id" = 1),
+    "purged_change_seq" BIGINT NOT NULL
+);
+
+INSERT INTO task_change_horizon ("id", "purged_change_seq") VALUES (1, 0);
+
+-- Numbers the row after taking the owner's write lock (task_user_lock_key, 08; shared with
+-- task_stats_apply and task_event_publish), which is held until the transaction commits or
+-- rolls back: all task writes of a user are serialized, and writers of one user commit in
+-- change_seq order, so a reader that saw change_seq N never gets a smaller value committed
+-- later. The last locked user is remembered in a transaction-local setting, so a statement
+-- (or transaction) writing many rows of one user locks once instead of once per row; the
+-- setting reverts with a rolled back savepoint, which at worst takes the lock again.
+-- Statements touching several users lock them in row order; the write paths of TaskService
+-- only ever touch one user.
+CREATE OR REPLACE FUNCTION task_change_stamp() RETURNS trigger AS $$
+BEGIN
+    IF NEW."assigned_user_id" IS NOT NULL
+       AND current_setting('taskmanager.change_locked_user', true) IS DISTINCT FROM NEW."assigned_user_id"::TEXT THEN
+        PERFORM pg_advisory_xact_lock(task_user_lock_key(NEW."assigned_user_id"));
+        PERFORM set_config('taskmanager.change_locked_user', NEW."assigned_user_id"::TEXT, true);
+    END IF;
+    NEW."change_seq" := nextval('task_change_seq');
+    IF TG_OP = 'UPDATE' THEN
+        NEW."updated_at" := now();
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Deletes, and tasks moved away from a user (including ON DELETE SET NULL), become
+-- tombstones for the previous owner
+CREATE OR REPLACE FUNCTION task_change_tombstone() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_advisory_xact_lock(task_user_lock_key(locked.user_id))
+    FROM (
+        SELECT DISTINCT o."assigned_user_id" AS user_id
+        FROM old_rows o
+        WHERE o."assigned_user_id" IS NOT NULL
+        ORDER BY 1
+    ) locked;
+
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO task_tombstone ("task_id", "user_id", "change_seq")
+        SELECT o."id", o."assigned_user_id", nextval('task_change_seq')
+        FROM old_rows o
+        WHERE o."assigned_user_id" IS NOT NULL;
+    ELSE
+        INSERT INTO task_tombstone ("task_id", "user_id", "change_seq")
+        SELECT o."id", o."assigned_user_id", nextval('task_change_seq')
+        FROM old_rows o JOIN new_rows n ON n."id" = o."id"
+        WHERE o."assigned_user_id" IS NOT NULL
+          AND o."assigned_user_id" IS DISTINCT FROM n."assigned_user_id";
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER task_change_stamp BEFORE INSERT OR UPDATE ON task
+FOR EACH ROW EXECUTE FUNCTION task_change_stamp();
+
+-- Transition tables need one trigger per event
+CREATE TRIGGER task_change_tombstone_update AFTER UPDATE ON task
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_change_tombstone();
+
+CREATE TRIGGER task_change_tombstone_delete AFTER DELETE ON task
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_change_tombstone();
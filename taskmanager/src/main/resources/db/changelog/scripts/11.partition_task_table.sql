@@ -0,0 +1,186 @@
+--liquibase formatted sql
+--changeset taskmanager:11.create_task_partitioned splitStatements:false
+-- Formatted SQL so the function bodies are not split on ';' (the driver handles the $$ quoting)
+
+-- Online move of task to hash partitions on assigned_user_id, in three steps:
+-- 1. (this changeset) task_partitioned is created next to task and every write to task is
+--    mirrored into it in the same transaction
+-- 2. the existing rows are copied in small batches by the taskpartitioning actuator endpoint
+--    (TaskPartitionBackfillService), which sets task_partition_backfill.completed_at when done
+-- 3. (11.swap_task_partitioned) on the first start after that, the two tables swap names
+-- Every query of the application is scoped to one assigned_user_id and prunes to one partition.
+
+-- Same columns, defaults (task_id_seq, task_change_seq) and generated search_vector as task.
+-- The partition key has to be part of the primary key, so a task always has an owner.
+-- BEHAVIOR CHANGE: fk_task_user of 03 was ON DELETE SET NULL, which cannot null a primary key
+-- column; the foreign key now cascades like UserEntity.tasks (CascadeType.ALL). Deleting a user
+-- by SQL deletes the user's tasks (reaching the event, stats and tombstone triggers as deletes)
+-- instead of leaving them without an owner, where no query of the application found them.
+-- Key order (assigned_user_id, id) makes the primary key the keyset pagination index
+-- (WHERE assigned_user_id = ? AND id < ? ORDER BY id DESC), replacing idx_task_assigned_user_id_desc.
+-- With assigned_user_id in the primary key the database no longer enforces a unique id (a unique
+-- index on a partitioned table must contain the partition key as well): ids are unique only
+-- because every writer takes them from task_id_seq. Never insert tasks with ids of your own.
+CREATE TABLE task_partitioned (
+    LIKE task INCLUDING DEFAULTS INCLUDING GENERATED,
+    CONSTRAINT task_partitioned_pkey PRIMARY KEY ("assigned_user_id", "id"),
+    CONSTRAINT fk_task_partitioned_user FOREIGN KEY ("assigned_user_id")
+        REFERENCES task_user("id") ON DELETE CASCADE
+) PARTITION BY HASH ("assigned_user_id");
+
+-- 16 partitions; a power of two, so each one can later be split in two (modulus 32)
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE task_p%s PARTITION OF task_partitioned'
+                || ' FOR VALUES WITH (MODULUS 16, REMAINDER %s)', lpad(i::text, 2, '0'), i);
+    END LOOP;
+END;
+$$;
+
+-- The other indexes of task (05, 10), created while the table is empty: an index on a
+-- partitioned table cannot be built CONCURRENTLY. Renamed to the task names by the swap.
+CREATE INDEX idx_task_partitioned_search_vector ON task_partitioned USING GIN ("assigned_user_id", "search_vector");
+CREATE INDEX idx_task_partitioned_search_trgm ON task_partitioned USING GIN (
+    "assigned_user_id",
+    "title" gin_trgm_ops,
+    "description" gin_trgm_ops
+);
+CREATE INDEX idx_task_partitioned_assigned_user_change_seq ON task_partitioned ("assigned_user_id", "change_seq");
+
+-- Mirrors the writes of one statement on task (JPA, native updates, pipeline batches, COPY
+-- imports). Runs after the change-stamp trigger, so change_seq and updated_at are copied as
+-- stamped. Tasks without an owner stay behind; the backfill counts them as skipped.
+CREATE OR REPLACE FUNCTION task_partition_sync() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM task_partitioned p
+        USING old_rows o
+        WHERE p."id" = o."id" AND p."assigned_user_id" = o."assigned_user_id";
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO task_partitioned ("id", "title", "description", "priority", "status", "assigned_user_id",
+                "version", "created_at", "updated_at", "change_seq")
+        SELECT n."id", n."title", n."description", n."priority", n."status", n."assigned_user_id",
+               n."version", n."created_at", n."updated_at", n."change_seq"
+        FROM new_rows n
+        WHERE n."assigned_user_id" IS NOT NULL;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables need one trigger per event
+CREATE TRIGGER task_partition_sync_insert AFTER INSERT ON task
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_partition_sync();
+
+CREATE TRIGGER task_partition_sync_update AFTER UPDATE ON task
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_partition_sync();
+
+CREATE TRIGGER task_partition_sync_delete AFTER DELETE ON task
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_partition_sync();
+
+-- Backfill progress, so a stopped or restarted backfill resumes after last_task_id
+CREATE TABLE task_partition_backfill (
+    "id" SMALLINT PRIMARY KEY CHECK ("id" = 1),
+    "last_task_id" BIGINT NOT NULL DEFAULT 0,
+    "copied" BIGINT NOT NULL DEFAULT 0,
+    "skipped" BIGINT NOT NULL DEFAULT 0,
+    "started_at" TIMESTAMPTZ,
+    "completed_at" TIMESTAMPTZ
+);
+
+-- A new database has nothing to copy and swaps right away
+INSERT INTO task_partition_backfill ("id", "completed_at")
+SELECT 1, CASE WHEN EXISTS (SELECT 1 FROM task) THEN NULL ELSE now() END;
+
+--changeset taskmanager:11.swap_task_partitioned splitStatements:false
+--preconditions onFail:CONTINUE
+--precondition-sql-check expectedResult:1 SELECT count(*) FROM task_partition_backfill WHERE completed_at IS NOT NULL
+-- Skipped (and retried on the next start) until the backfill has completed. Renames only, under
+-- a short ACCESS EXCLUSIVE lock; the old table stays as task_unpartitioned, without triggers,
+-- until it is dropped by hand. Objects that 12 and 13 created on both tables while the swap was
+-- pending are handled with IF EXISTS: on a new database the swap runs before them.
+
+-- Same order as the writers, which lock task and then (sync trigger) task_partitioned
+LOCK TABLE task, task_partitioned IN ACCESS EXCLUSIVE MODE;
+
+DROP TRIGGER task_partition_sync_insert ON task;
+DROP TRIGGER task_partition_sync_update ON task;
+DROP TRIGGER task_partition_sync_delete ON task;
+DROP FUNCTION task_partition_sync();
+
+DROP TRIGGER task_stats_insert ON task;
+DROP TRIGGER task_stats_update ON task;
+DROP TRIGGER task_stats_delete ON task;
+DROP TRIGGER task_event_insert ON task;
+DROP TRIGGER task_event_update ON task;
+DROP TRIGGER task_event_delete ON task;
+DROP TRIGGER task_change_stamp ON task;
+DROP TRIGGER task_change_tombstone_update ON task;
+DROP TRIGGER task_change_tombstone_delete ON task;
+-- Already on task_partitioned as well (13)
+DROP TRIGGER IF EXISTS task_collection_version_insert ON task;
+DROP TRIGGER IF EXISTS task_collection_version_update ON task;
+DROP TRIGGER IF EXISTS task_collection_version_delete ON task;
+
+ALTER TABLE task RENAME TO task_unpartitioned;
+ALTER TABLE task_unpartitioned RENAME CONSTRAINT task_pkey TO task_unpartitioned_pkey;
+ALTER TABLE task_unpartitioned RENAME CONSTRAINT fk_task_user TO fk_task_unpartitioned_user;
+ALTER INDEX idx_task_assigned_user_id_desc RENAME TO idx_task_unpartitioned_assigned_user_id_desc;
+ALTER INDEX idx_task_search_vector RENAME TO idx_task_unpartitioned_search_vector;
+ALTER INDEX idx_task_search_trgm RENAME TO idx_task_unpartitioned_search_trgm;
+ALTER INDEX idx_task_assigned_user_change_seq RENAME TO idx_task_unpartitioned_assigned_user_change_seq;
+ALTER INDEX IF EXISTS idx_task_status_updated_at RENAME TO idx_task_unpartitioned_status_updated_at;
+
+ALTER TABLE task_partitioned RENAME TO task;
+ALTER TABLE task RENAME CONSTRAINT task_partitioned_pkey TO task_pkey;
+ALTER TABLE task RENAME CONSTRAINT fk_task_partitioned_user TO fk_task_user;
+ALTER INDEX idx_task_partitioned_search_vector RENAME TO idx_task_search_vector;
+ALTER INDEX idx_task_partitioned_search_trgm RENAME TO idx_task_search_trgm;
+ALTER INDEX idx_task_partitioned_assigned_user_change_seq RENAME TO idx_task_assigned_user_change_seq;
+ALTER INDEX IF EXISTS idx_task_partitioned_status_updated_at RENAME TO idx_task_status_updated_at;
+
+-- Otherwise dropping task_unpartitioned would drop the sequences with it
+ALTER SEQUENCE task_id_seq OWNED BY task."id";
+ALTER SEQUENCE task_change_seq OWNED BY task."change_seq";
+
+-- The triggers of 08, 09 and 10, now on the partitioned table (row triggers are cloned to
+-- every partition, statement triggers fire once on the parent)
+CREATE TRIGGER task_stats_insert AFTER INSERT ON task
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_stats_apply();
+
+CREATE TRIGGER task_stats_update AFTER UPDATE ON task
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_stats_apply();
+
+CREATE TRIGGER task_stats_delete AFTER DELETE ON task
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_stats_apply();
+
+CREATE TRIGGER task_event_insert AFTER INSERT ON task
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_event_capture();
+
+CREATE TRIGGER task_event_update AFTER UPDATE ON task
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_event_capture();
+
+CREATE TRIGGER task_event_delete AFTER DELETE ON task
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_event_capture();
+
+CREATE TRIGGER task_change_stamp BEFORE INSERT OR UPDATE ON task
+FOR EACH ROW EXECUTE FUNCTION task_change_stamp();
+
+CREATE TRIGGER task_change_tombstone_update AFTER UPDATE ON task
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_change_tombstone();
+
+CREATE TRIGGER task_change_tombstone_delete AFTER DELETE ON task
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_change_tombstone();
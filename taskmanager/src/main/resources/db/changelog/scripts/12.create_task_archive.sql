@@ -0,0 +1,27 @@
+--liquibase formatted sql
+--changeset taskmanager:12.create_task_archive splitStatements:false
+-- Formatted SQL so the DO block is not split on ';'
+
+-- Cold storage for tasks moved out of task by the archival job (TaskArchiveService). Only read
+-- by list and search requests that ask for includeArchived, always for one user, so the
+-- primary key is the only index: (assigned_user_id, id) serves both the id DESC listing and
+-- the per-user scan of a search. search_vector is generated like on task, without an index.
+CREATE TABLE task_archive (
+    LIKE task INCLUDING GENERATED,
+    "archived_at" TIMESTAMPTZ NOT NULL DEFAULT now(),
+    CONSTRAINT task_archive_pkey PRIMARY KEY ("assigned_user_id", "id"),
+    CONSTRAINT fk_task_archive_user FOREIGN KEY ("assigned_user_id")
+        REFERENCES task_user("id") ON DELETE CASCADE
+);
+
+-- WHERE status = ANY(?) AND updated_at < ? ORDER BY updated_at: the archival job's candidates
+-- and its lag. Goes on task_partitioned as well while the partition swap (11) is pending.
+CREATE INDEX idx_task_status_updated_at ON task ("status", "updated_at");
+
+DO $$
+BEGIN
+    IF to_regclass('task_partitioned') IS NOT NULL THEN
+        CREATE INDEX idx_task_partitioned_status_updated_at ON task_partitioned ("status", "updated_at");
+    END IF;
+END;
+$$;
@@ -0,0 +1,94 @@
+--liquibase formatted sql
+--changeset taskmanager:13.create_task_collection_version splitStatements:false
+-- Formatted SQL so the function body and the DO block are not split on ';'
+
+-- Version of each user's task collection, behind the ETag of GET /tasks and GET /tasks/search
+-- (TaskService, cached in TaskListCache). Any write to a user's tasks moves it forward, so a matching
+-- If-None-Match is answered from this row, or from memory, without reading task. Users without
+-- a row have version 0.
+CREATE TABLE task_collection_version (
+    "user_id" BIGINT PRIMARY KEY REFERENCES task_user("id") ON DELETE CASCADE,
+    "version" BIGINT NOT NULL
+);
+
+-- Versions come from task_change_seq, so they never repeat, not even across users, and a
+-- version taken after a write is always greater than any taken before it.
+-- Statement level with transition tables, like task_stats_apply: one upsert per user touched by
+-- the statement, in user order. The writers of a user already serialize on the change lock of
+-- task_change_stamp, so the row lock adds no waiting of its own.
+CREATE OR REPLACE FUNCTION task_collection_version_bump() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO task_collection_version ("user_id", "version")
+        SELECT u.user_id, nextval('task_change_seq')
+        FROM (
+            SELECT DISTINCT "assigned_user_id" AS user_id FROM new_rows
+            WHERE "assigned_user_id" IS NOT NULL
+            ORDER BY 1
+        ) u
+        ON CONFLICT ("user_id") DO UPDATE SET "version" = EXCLUDED."version";
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO task_collection_version ("user_id", "version")
+        SELECT u.user_id, nextval('task_change_seq')
+        FROM (
+            SELECT DISTINCT "assigned_user_id" AS user_id FROM old_rows
+            WHERE "assigned_user_id" IS NOT NULL
+            ORDER BY 1
+        ) u
+        ON CONFLICT ("user_id") DO UPDATE SET "version" = EXCLUDED."version";
+    ELSE
+        -- Old and new owner: a task moved to another user (or to none, ON DELETE SET NULL) changes
+        -- both collections
+        INSERT INTO task_collection_version ("user_id", "version")
+        SELECT u.user_id, nextval('task_change_seq')
+        FROM (
+            SELECT "assigned_user_id" AS user_id FROM new_rows
+            UNION
+            SELECT "assigned_user_id" AS user_id FROM old_rows
+        ) u
+        WHERE u.user_id IS NOT NULL
+        ORDER BY 1
+        ON CONFLICT ("user_id") DO UPDATE SET "version" = EXCLUDED."version";
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables need one trigger per event
+CREATE TRIGGER task_collection_version_insert AFTER INSERT ON task
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_collection_version_bump();
+
+CREATE TRIGGER task_collection_version_update AFTER UPDATE ON task
+REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_collection_version_bump();
+
+CREATE TRIGGER task_collection_version_delete AFTER DELETE ON task
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT EXECUTE FUNCTION task_collection_version_bump();
+
+-- While the partition swap (11) is pending, also on task_partitioned, which becomes task with
+-- its triggers. Until then a write bumps the version twice (task, then the synced copy), which
+-- costs an extra sequence value and nothing else.
+DO $$
+BEGIN
+    IF to_regclass('task_partitioned') IS NOT NULL THEN
+        CREATE TRIGGER task_collection_version_insert AFTER INSERT ON task_partitioned
+        REFERENCING NEW TABLE AS new_rows
+        FOR EACH STATEMENT EXECUTE FUNCTION task_collection_version_bump();
+
+        CREATE TRIGGER task_collection_version_update AFTER UPDATE ON task_partitioned
+        REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+        FOR EACH STATEMENT EXECUTE FUNCTION task_collection_version_bump();
+
+        CREATE TRIGGER task_collection_version_delete AFTER DELETE ON task_partitioned
+        REFERENCING OLD TABLE AS old_rows
+        FOR EACH STATEMENT EXECUTE FUNCTION task_collection_version_bump();
+    END IF;
+END;
+$$;
+
+-- Existing users
+INSERT INTO task_collection_version ("user_id", "version")
+SELECT "id", nextval('task_change_seq')
+FROM task_user;
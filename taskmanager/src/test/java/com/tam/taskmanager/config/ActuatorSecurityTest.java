@@ -0,0 +1,68 @@
+package com.tam.taskmanager.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import com.tam.taskmanager.support.IntegrationTest;
+
+/**
+ * Actuator endpoints other than health need the admin realm role.
+ */
+class ActuatorSecurityTest extends IntegrationTest {
+
+    private static final String TASK_PARTITIONING = "/actuator/taskpartitioning";
+
+    @Test
+    void healthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void endUserCannotDriveTheBackfill() throws Exception {
+        String token = bearer(newUser());
+
+        mockMvc.perform(get(TASK_PARTITIONING).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post(TASK_PARTITIONING).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete(TASK_PARTITIONING).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void adminReadsTheBackfillStatus() throws Exception {
+        mockMvc.perform(get(TASK_PARTITIONING).header(HttpHeaders.AUTHORIZATION, admin()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void endUserCannotReadOperationsData() throws Exception {
+        String token = bearer(newUser());
+
+        for (String endpoint : List.of("slowrequests", "usercache", "prometheus", "metrics")) {
+            mockMvc.perform(get("/actuator/" + endpoint).header(HttpHeaders.AUTHORIZATION, token))
+                    .andExpect(status().isForbidden());
+        }
+    }
+
+    @Test
+    void adminReadsOperationsData() throws Exception {
+        for (String endpoint : List.of("slowrequests", "usercache", "metrics")) {
+            mockMvc.perform(get("/actuator/" + endpoint).header(HttpHeaders.AUTHORIZATION, admin()))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    private static String admin() {
+        return "Bearer " + JWT_ISSUER.issue(newUser(), List.of("admin"), Duration.ofMinutes(5));
+    }
+}
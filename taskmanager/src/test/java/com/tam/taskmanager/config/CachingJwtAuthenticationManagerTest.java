@@ -0,0 +1,162 @@
+package com.tam.taskmanager.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.tam.taskmanager.config.CachingJwtAuthenticationManager.VerifiedJwt;
+import com.tam.taskmanager.support.LocalJwtIssuer;
+
+class CachingJwtAuthenticationManagerTest {
+
+    private static final String ISSUER = "http://localhost:8080/realms/task-maneger-realm";
+    private static final Duration MAX_TTL = Duration.ofMinutes(10);
+
+    private final LocalJwtIssuer issuer = new LocalJwtIssuer(ISSUER);
+    private final AtomicInteger verifications = new AtomicInteger();
+    private Cache<String, VerifiedJwt> cache;
+    private CachingJwtAuthenticationManager manager;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withPublicKey(publicKey(issuer)).build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(ISSUER));
+        JwtAuthenticationProvider provider = new JwtAuthenticationProvider(decoder);
+        provider.setJwtAuthenticationConverter(new JwtAuthConverter());
+        cache = Caffeine.newBuilder()
+                .expireAfter(new CachingJwtAuthenticationManager.TokenExpiry(MAX_TTL))
+                .build();
+        manager = new CachingJwtAuthenticationManager(new CountingProvider(provider), cache);
+    }
+
+    @Test
+    void repeatedTokenIsVerifiedOnce() {
+        String token = issuer.issue("user-1", List.of("manage_task"), Duration.ofMinutes(5));
+
+        Authentication first = manager.authenticate(bearer(token, "first"));
+        Authentication second = manager.authenticate(bearer(token, "second"));
+
+        assertThat(verifications).hasValue(1);
+        assertThat(second.getName()).isEqualTo("user-1");
+        assertThat(AuthorityUtils.authorityListToSet(second.getAuthorities()))
+                .isEqualTo(AuthorityUtils.authorityListToSet(first.getAuthorities()))
+                .contains("role_manage_task");
+        assertThat(((JwtAuthenticationToken) second).getToken())
+                .isEqualTo(((JwtAuthenticationToken) first).getToken());
+    }
+
+    @Test
+    void cachedTokenGetsANewAuthenticationPerRequest() {
+        String token = issuer.issue("user-1", List.of("manage_task"), Duration.ofMinutes(5));
+
+        Authentication first = manager.authenticate(bearer(token, "first"));
+        Authentication second = manager.authenticate(bearer(token, "second"));
+        Authentication third = manager.authenticate(bearer(token, "third"));
+
+        assertThat(second).isNotSameAs(third);
+        assertThat(first.getDetails()).isEqualTo("first");
+        assertThat(second.getDetails()).isEqualTo("second");
+        assertThat(third.getDetails()).isEqualTo("third");
+        assertThat(second.isAuthenticated()).isTrue();
+    }
+
+    @Test
+    void entryExpiresAtTheTokensExp() {
+        String shortLived = issuer.issue("user-1", List.of("manage_task"), Duration.ofSeconds(30));
+        String longLived = issuer.issue("user-2", List.of("manage_task"), Duration.ofHours(1));
+
+        manager.authenticate(bearer(shortLived, null));
+        manager.authenticate(bearer(longLived, null));
+
+        assertThat(expiresAfter(shortLived)).isPositive().isLessThanOrEqualTo(Duration.ofSeconds(30));
+        assertThat(expiresAfter(longLived)).isGreaterThan(Duration.ofMinutes(9)).isLessThanOrEqualTo(MAX_TTL);
+    }
+
+    @Test
+    void expiredTokenIsRejectedAndNotCached() {
+        Instant issuedAt = Instant.now().minus(Duration.ofHours(1));
+        String expired = issuer.sign(new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject("user-1")
+                .issueTime(Date.from(issuedAt))
+                .expirationTime(Date.from(issuedAt.plus(Duration.ofMinutes(5))))
+                .build());
+
+        assertThatThrownBy(() -> manager.authenticate(bearer(expired, null)))
+                .isInstanceOf(AuthenticationException.class);
+        assertThatThrownBy(() -> manager.authenticate(bearer(expired, null)))
+                .isInstanceOf(AuthenticationException.class);
+        assertThat(verifications).hasValue(2);
+        assertThat(cache.estimatedSize()).isZero();
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejectedAndNotCached() {
+        // e.g. a key removed from the realm's key set
+        String foreign = new LocalJwtIssuer(ISSUER).issue("user-1", List.of("manage_task"), Duration.ofMinutes(5));
+
+        assertThatThrownBy(() -> manager.authenticate(bearer(foreign, null)))
+                .isInstanceOf(AuthenticationException.class);
+        assertThat(cache.estimatedSize()).isZero();
+    }
+
+    private Duration expiresAfter(String token) {
+        return Duration.ofNanos(cache.policy().expireVariably().orElseThrow()
+                .getExpiresAfter(CachingJwtAuthenticationManager.tokenHash(token), TimeUnit.NANOSECONDS)
+                .orElseThrow());
+    }
+
+    private static BearerTokenAuthenticationToken bearer(String token, Object details) {
+        BearerTokenAuthenticationToken bearer = new BearerTokenAuthenticationToken(token);
+        bearer.setDetails(details);
+        return bearer;
+    }
+
+    private static RSAPublicKey publicKey(LocalJwtIssuer issuer) throws Exception {
+        return ((RSAKey) JWKSet.parse(issuer.jwkSetJson()).getKeys().get(0)).toRSAPublicKey();
+    }
+
+    private class CountingProvider implements AuthenticationProvider {
+
+        private final AuthenticationProvider delegate;
+
+        CountingProvider(AuthenticationProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Authentication authenticate(Authentication authentication) {
+            verifications.incrementAndGet();
+            return delegate.authenticate(authentication);
+        }
+
+        @Override
+        public boolean supports(Class<?> authentication) {
+            return delegate.supports(authentication);
+        }
+    }
+}
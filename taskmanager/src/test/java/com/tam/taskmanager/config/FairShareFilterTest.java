@@ -0,0 +1,80 @@
+package com.tam.taskmanager.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.tam.taskmanager.config.FairShareFilter.Limit;
+import com.tam.taskmanager.enums.RequestClassEnum;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FairShareFilterTest {
+
+    private static final String SEARCH = "/api/v1/tasks/search";
+    private static final String READ = "/api/v1/tasks";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FairShareFilter filter = new FairShareFilter(
+            Map.of(RequestClassEnum.SEARCH, new Limit(1, 2)), 100, Duration.ofMinutes(5), meterRegistry);
+
+    @Test
+    void requestOverTheBurstIsRejectedWithRetryAfter() throws Exception {
+        assertThat(send("user-1", SEARCH).getStatus()).isEqualTo(200);
+        assertThat(send("user-1", SEARCH).getStatus()).isEqualTo(200);
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse rejected = send("user-1", SEARCH, chain);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        // One request per second: the next token is at most a second away
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(chain.getRequest()).isNull();
+        assertThat(meterRegistry.get("taskmanager.fairshare.rejected").tag("class", "search").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void limitIsPerUserAndRequestClass() throws Exception {
+        send("user-1", SEARCH);
+        send("user-1", SEARCH);
+        assertThat(send("user-1", SEARCH).getStatus()).isEqualTo(429);
+
+        assertThat(send("user-2", SEARCH).getStatus()).isEqualTo(200);
+        // No limit configured for reads
+        for (int i = 0; i < 5; i++) {
+            assertThat(send("user-1", READ).getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void bucketRefillsAtTheRate() throws Exception {
+        send("user-1", SEARCH);
+        send("user-1", SEARCH);
+        assertThat(send("user-1", SEARCH).getStatus()).isEqualTo(429);
+
+        Thread.sleep(1100);
+
+        assertThat(send("user-1", SEARCH).getStatus()).isEqualTo(200);
+        assertThat(send("user-1", SEARCH).getStatus()).isEqualTo(429);
+    }
+
+    private MockHttpServletResponse send(String user, String uri) throws Exception {
+        return send(user, uri, new MockFilterChain());
+    }
+
+    private MockHttpServletResponse send(String user, String uri, MockFilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setUserPrincipal(() -> user);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,70 @@
+package com.tam.taskmanager.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tam.taskmanager.support.IntegrationTest;
+
+/**
+ * POST /tasks/bulk: every operation is validated before anything is written.
+ */
+class TaskBulkTest extends IntegrationTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void overlongTitleOrDescriptionIsAPerOperationError() throws Exception {
+        String subject = newUser();
+        String token = bearer(subject);
+        long taskId = createTask(token, "Existing");
+
+        List<Map<String, Object>> operations = List.of(
+                Map.of("op", "CREATE", "title", "Valid", "description", "description", "priority", "LOW",
+                        "status", "PENDING"),
+                Map.of("op", "CREATE", "title", "x".repeat(256), "description", "description", "priority",
+                        "LOW", "status", "PENDING"),
+                Map.of("op", "UPDATE", "taskId", taskId, "title", "Existing", "description", "x".repeat(256),
+                        "priority", "HIGH", "status", "COMPLETED"));
+        MvcResult result = mockMvc.perform(post(API + "/tasks/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(operations))
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+
+        List<String> errors = new ArrayList<>();
+        objectMapper.readTree(result.getResponse().getContentAsString()).get("errors")
+                .forEach((JsonNode error) -> errors.add(error.asText()));
+        assertThat(errors).containsExactly(
+                "operations[1]: title is longer than 255 characters",
+                "operations[2]: description is longer than 255 characters");
+        assertThat(jdbcTemplate.queryForList("SELECT title FROM task WHERE assigned_user_id = ?", String.class,
+                userId(subject))).containsExactly("Existing");
+    }
+
+    private long createTask(String token, String title) throws Exception {
+        MvcResult result = mockMvc.perform(post(API + "/tasks")
+                .param("title", title)
+                .param("description", "description")
+                .param("priority", "LOW")
+                .param("status", "PENDING")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn();
+        return Long.parseLong(result.getResponse().getContentAsString());
+    }
+}
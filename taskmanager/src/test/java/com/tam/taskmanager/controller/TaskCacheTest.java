@@ -0,0 +1,142 @@
+package com.tam.taskmanager.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tam.taskmanager.support.IntegrationTest;
+
+/**
+ * Invalidation of the cached task lists (TaskListCache): per user, and for
+ * writes of other instances only.
+ */
+class TaskCacheTest extends IntegrationTest {
+
+    private static final String RENAME_TASK = "UPDATE task SET title = ? WHERE id = ?";
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void writeEvictsOnlyTheListsOfItsUser() throws Exception {
+        String token = bearer(newUser());
+        String otherToken = bearer(newUser());
+        long taskId = createTask(token, "Cached");
+        createTask(otherToken, "Other");
+        assertThat(titles(token)).containsExactly("Cached");
+        assertThat(titles(otherToken)).containsExactly("Other");
+
+        // Same origin as the application's own writes, which invalidate on their write path
+        jdbcTemplate.update(RENAME_TASK, "Renamed", taskId);
+        createTask(otherToken, "Other 2");
+        awaitQuietListener();
+
+        assertThat(titles(token)).containsExactly("Cached");
+        assertThat(titles(otherToken)).containsExactly("Other 2", "Other");
+
+        mockMvc.perform(patch(API + "/tasks")
+                .param("taskId", Long.toString(taskId))
+                .param("status", "COMPLETED")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+        assertThat(titles(token)).containsExactly("Renamed");
+    }
+
+    @Test
+    void writeOfAnotherInstanceEvictsTheListsOfItsUser() throws Exception {
+        String token = bearer(newUser());
+        long taskId = createTask(token, "Cached");
+        assertThat(titles(token)).containsExactly("Cached");
+
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET application_name = 'taskmanager-other'");
+            }
+            try (PreparedStatement rename = connection.prepareStatement(RENAME_TASK)) {
+                rename.setString(1, "Renamed elsewhere");
+                rename.setLong(2, taskId);
+                rename.executeUpdate();
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("RESET application_name");
+                }
+            }
+        }
+
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        List<String> titles = titles(token);
+        while (!titles.contains("Renamed elsewhere") && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            titles = titles(token);
+        }
+        assertThat(titles).containsExactly("Renamed elsewhere");
+    }
+
+    // The listener handles notifications in commit order: once a later one took effect, earlier ones did too
+    private void awaitQuietListener() throws Exception {
+        String subject = newUser();
+        String token = bearer(subject);
+        createTask(token, "Marker");
+        titles(token);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SET application_name = 'taskmanager-other'");
+            statement.execute("UPDATE task SET title = 'Marker seen' WHERE assigned_user_id = " + userId(subject));
+            statement.execute("RESET application_name");
+        }
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (!titles(token).contains("Marker seen") && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+
+    private List<String> titles(String token) throws Exception {
+        List<String> titles = new ArrayList<>();
+        for (JsonNode task : list(token)) {
+            titles.add(task.get("title").asText());
+        }
+        return titles;
+    }
+
+    private JsonNode list(String token) throws Exception {
+        MvcResult result = mockMvc.perform(get(API + "/tasks")
+                .param("pageSize", "10")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private long createTask(String token, String title) throws Exception {
+        MvcResult result = mockMvc.perform(post(API + "/tasks")
+                .param("title", title)
+                .param("description", "description")
+                .param("priority", "LOW")
+                .param("status", "PENDING")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn();
+        return Long.parseLong(result.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,149 @@
+package com.tam.taskmanager.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tam.taskmanager.repository.TaskChangeRepository;
+import com.tam.taskmanager.support.IntegrationTest;
+
+/**
+ * GET /tasks/changes: change_seq stamps and tombstones of 10.add_task_change_seq.sql.
+ */
+class TaskChangesTest extends IntegrationTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskChangeRepository taskChangeRepository;
+
+    @Test
+    void fullSyncPagesThroughAllTasks() throws Exception {
+        String token = bearer(newUser());
+        long first = createTask(token, "First");
+        long second = createTask(token, "Second");
+        long third = createTask(token, "Third");
+
+        JsonNode page = changes(token, 0, 2);
+        assertThat(ids(page.get("changed"))).containsExactly(first, second);
+        assertThat(page.get("hasMore").asBoolean()).isTrue();
+
+        JsonNode next = changes(token, page.get("nextSince").asLong(), 2);
+        assertThat(ids(next.get("changed"))).containsExactly(third);
+        assertThat(next.get("hasMore").asBoolean()).isFalse();
+        assertThat(next.get("reset").asBoolean()).isFalse();
+    }
+
+    @Test
+    void deltaHasUpdatesAndTombstonesOnly() throws Exception {
+        String token = bearer(newUser());
+        long kept = createTask(token, "Kept");
+        long updated = createTask(token, "Updated");
+        long deleted = createTask(token, "Deleted");
+        long since = changes(token, 0, 50).get("nextSince").asLong();
+
+        mockMvc.perform(patch(API + "/tasks")
+                .param("taskId", Long.toString(updated))
+                .param("status", "COMPLETED")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete(API + "/tasks")
+                .param("taskId", Long.toString(deleted))
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+
+        JsonNode delta = changes(token, since, 50);
+        assertThat(ids(delta.get("changed"))).containsExactly(updated).doesNotContain(kept);
+        assertThat(delta.get("changed").get(0).get("status").asText()).isEqualTo("COMPLETED");
+        assertThat(longs(delta.get("deleted"))).containsExactly(deleted);
+        assertThat(delta.get("nextSince").asLong()).isGreaterThan(since);
+
+        JsonNode caughtUp = changes(token, delta.get("nextSince").asLong(), 50);
+        assertThat(caughtUp.get("changed")).isEmpty();
+        assertThat(caughtUp.get("deleted")).isEmpty();
+        assertThat(caughtUp.get("nextSince").asLong()).isEqualTo(delta.get("nextSince").asLong());
+    }
+
+    @Test
+    void taskMovedToAnotherUserIsATombstoneForThePreviousOwner() throws Exception {
+        String owner = newUser();
+        String other = newUser();
+        String ownerToken = bearer(owner);
+        long moved = createTask(ownerToken, "Moved");
+        long since = changes(ownerToken, 0, 50).get("nextSince").asLong();
+        createTask(bearer(other), "Other");
+
+        jdbcTemplate.update("UPDATE task SET assigned_user_id = ? WHERE id = ?", userId(other), moved);
+
+        assertThat(longs(changes(ownerToken, since, 50).get("deleted"))).containsExactly(moved);
+        assertThat(ids(changes(bearer(other), 0, 50).get("changed"))).contains(moved);
+    }
+
+    @Test
+    void clientSyncedBeforePurgedTombstonesIsReset() throws Exception {
+        String token = bearer(newUser());
+        long kept = createTask(token, "Kept");
+        long deleted = createTask(token, "Deleted");
+        long since = changes(token, 0, 50).get("nextSince").asLong();
+        mockMvc.perform(delete(API + "/tasks")
+                .param("taskId", Long.toString(deleted))
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+
+        taskChangeRepository.purgeTombstones(Instant.now().plusSeconds(60));
+
+        JsonNode reset = changes(token, since, 50);
+        assertThat(reset.get("reset").asBoolean()).isTrue();
+        assertThat(ids(reset.get("changed"))).containsExactly(kept);
+        assertThat(reset.get("deleted")).isEmpty();
+    }
+
+    private JsonNode changes(String token, long since, int pageSize) throws Exception {
+        MvcResult result = mockMvc.perform(get(API + "/tasks/changes")
+                .param("since", Long.toString(since))
+                .param("pageSize", Integer.toString(pageSize))
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static List<Long> ids(JsonNode tasks) {
+        List<Long> ids = new ArrayList<>();
+        tasks.forEach(task -> ids.add(task.get("id").asLong()));
+        return ids;
+    }
+
+    private static List<Long> longs(JsonNode values) {
+        List<Long> longs = new ArrayList<>();
+        values.forEach(value -> longs.add(value.asLong()));
+        return longs;
+    }
+
+    private long createTask(String token, String title) throws Exception {
+        MvcResult result = mockMvc.perform(post(API + "/tasks")
+                .param("title", title)
+                .param("description", "description")
+                .param("priority", "LOW")
+                .param("status", "PENDING")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn();
+        return Long.parseLong(result.getResponse().getContentAsString());
+    }
+}
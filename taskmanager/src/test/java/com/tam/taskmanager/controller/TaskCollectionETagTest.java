@@ -0,0 +1,122 @@
+package com.tam.taskmanager.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.tam.taskmanager.support.IntegrationTest;
+
+/**
+ * Weak ETags of GET /tasks and GET /tasks/search, and If-None-Match.
+ */
+class TaskCollectionETagTest extends IntegrationTest {
+
+    private static final Pattern COLLECTION_ETAG = Pattern.compile("W/\"(\\d+)-[0-9a-f]+\"");
+
+    @Test
+    void listETagIsTheVersionTheTasksWereReadAt() throws Exception {
+        String subject = newUser();
+        String token = bearer(subject);
+        createTask(token, "First");
+
+        MvcResult listed = mockMvc.perform(list(token)).andExpect(status().isOk()).andReturn();
+
+        assertThat(version(listed.getResponse().getHeader(HttpHeaders.ETAG))).isEqualTo(storedVersion(subject));
+    }
+
+    @Test
+    void unchangedListIsNotModified() throws Exception {
+        String token = bearer(newUser());
+        createTask(token, "First");
+        String eTag = mockMvc.perform(list(token)).andExpect(status().isOk()).andReturn()
+                .getResponse().getHeader(HttpHeaders.ETAG);
+
+        MvcResult revalidated = mockMvc.perform(list(token).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        assertThat(revalidated.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(eTag);
+        assertThat(revalidated.getResponse().getContentAsString()).isEmpty();
+    }
+
+    @Test
+    void writeMakesTheETagStale() throws Exception {
+        String subject = newUser();
+        String token = bearer(subject);
+        long taskId = createTask(token, "First");
+        String eTag = mockMvc.perform(list(token)).andExpect(status().isOk()).andReturn()
+                .getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(patch(API + "/tasks")
+                .param("taskId", Long.toString(taskId))
+                .param("status", "COMPLETED")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+
+        MvcResult refreshed = mockMvc.perform(list(token).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn();
+        String nextETag = refreshed.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(version(nextETag)).isGreaterThan(version(eTag)).isEqualTo(storedVersion(subject));
+        assertThat(refreshed.getResponse().getContentAsString()).contains("COMPLETED");
+    }
+
+    @Test
+    void searchIsNotModifiedUntilAWrite() throws Exception {
+        String token = bearer(newUser());
+        createTask(token, "Quarterly report");
+        MockHttpServletRequestBuilder search = get(API + "/tasks/search")
+                .param("search", "report")
+                .header(HttpHeaders.AUTHORIZATION, token);
+        String eTag = mockMvc.perform(search).andExpect(status().isOk()).andReturn()
+                .getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(search.header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        createTask(token, "Yearly report");
+        MvcResult refreshed = mockMvc.perform(search.header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(refreshed.getResponse().getContentAsString()).contains("Yearly report");
+    }
+
+    private MockHttpServletRequestBuilder list(String token) {
+        return get(API + "/tasks")
+                .param("pageSize", "10")
+                .header(HttpHeaders.AUTHORIZATION, token);
+    }
+
+    private long storedVersion(String subject) {
+        return jdbcTemplate.queryForObject("SELECT version FROM task_collection_version WHERE user_id = ?",
+                Long.class, userId(subject));
+    }
+
+    private static long version(String eTag) {
+        Matcher matcher = COLLECTION_ETAG.matcher(eTag);
+        assertThat(matcher.matches()).as("collection ETag %s", eTag).isTrue();
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private long createTask(String token, String title) throws Exception {
+        MvcResult result = mockMvc.perform(post(API + "/tasks")
+                .param("title", title)
+                .param("description", "description")
+                .param("priority", "LOW")
+                .param("status", "PENDING")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn();
+        return Long.parseLong(result.getResponse().getContentAsString());
+    }
+}
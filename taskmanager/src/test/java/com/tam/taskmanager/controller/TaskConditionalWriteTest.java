@@ -0,0 +1,152 @@
+package com.tam.taskmanager.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.tam.taskmanager.support.IntegrationTest;
+
+/**
+ * ETags of single task responses and If-Match on PUT, PATCH and DELETE.
+ */
+class TaskConditionalWriteTest extends IntegrationTest {
+
+    @Test
+    void writesReturnTheNewVersionAsETag() throws Exception {
+        String token = bearer(newUser());
+        long taskId = createTask(token);
+
+        String eTag = patchStatus(token, taskId, "COMPLETED", null)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String nextETag = mockMvc.perform(put(API + "/tasks")
+                .param("taskId", Long.toString(taskId))
+                .param("title", "Renamed")
+                .param("description", "description")
+                .param("priority", "HIGH")
+                .param("status", "COMPLETED")
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Renamed"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(eTag).matches("\"\\d+\"");
+        assertThat(version(nextETag)).isEqualTo(version(eTag) + 1);
+    }
+
+    @Test
+    void staleIfMatchIsRejectedWithoutWriting() throws Exception {
+        String token = bearer(newUser());
+        long taskId = createTask(token);
+        String eTag = patchStatus(token, taskId, "COMPLETED", null).andReturn().getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        patchStatus(token, taskId, "PENDING", eTag).andExpect(status().isOk());
+
+        patchStatus(token, taskId, "COMPLETED", eTag).andExpect(status().isPreconditionFailed());
+        mockMvc.perform(delete(API + "/tasks")
+                .param("taskId", Long.toString(taskId))
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT status FROM task WHERE id = ?", String.class, taskId))
+                .isEqualTo("PENDING");
+    }
+
+    @Test
+    void deleteWithCurrentIfMatchDeletes() throws Exception {
+        String token = bearer(newUser());
+        long taskId = createTask(token);
+        String eTag = patchStatus(token, taskId, "COMPLETED", null).andReturn().getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(delete(API + "/tasks")
+                .param("taskId", Long.toString(taskId))
+                .header(HttpHeaders.IF_MATCH, "W/" + eTag)
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete(API + "/tasks")
+                .param("taskId", Long.toString(taskId))
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void malformedIfMatchIsBadRequest() throws Exception {
+        String token = bearer(newUser());
+        long taskId = createTask(token);
+
+        patchStatus(token, taskId, "COMPLETED", "\"abc\"").andExpect(status().isBadRequest());
+        mockMvc.perform(delete(API + "/tasks")
+                .param("taskId", Long.toString(taskId))
+                .header(HttpHeaders.IF_MATCH, "\"abc\"")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unknownPriorityOrStatusIsBadRequest() throws Exception {
+        String token = bearer(newUser());
+        long taskId = createTask(token);
+
+        patchStatus(token, taskId, "DONE", null).andExpect(status().isBadRequest());
+        mockMvc.perform(patch(API + "/tasks")
+                .param("taskId", Long.toString(taskId))
+                .param("priority", "URGENT")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void tasksOfOtherUsersAreNotFound() throws Exception {
+        long taskId = createTask(bearer(newUser()));
+        String otherToken = bearer(newUser());
+
+        patchStatus(otherToken, taskId, "COMPLETED", null).andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+        mockMvc.perform(delete(API + "/tasks")
+                .param("taskId", Long.toString(taskId))
+                .header(HttpHeaders.AUTHORIZATION, otherToken))
+                .andExpect(status().isNotFound());
+    }
+
+    private ResultActions patchStatus(String token, long taskId, String status,
+            String ifMatch) throws Exception {
+        MockHttpServletRequestBuilder request = patch(API + "/tasks")
+                .param("taskId", Long.toString(taskId))
+                .param("status", status)
+                .header(HttpHeaders.AUTHORIZATION, token);
+        if (ifMatch != null) {
+            request.header(HttpHeaders.IF_MATCH, ifMatch);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private long createTask(String token) throws Exception {
+        MvcResult result = mockMvc.perform(post(API + "/tasks")
+                .param("title", "Task")
+                .param("description", "description")
+                .param("priority", "LOW")
+                .param("status", "PENDING")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn();
+        return Long.parseLong(result.getResponse().getContentAsString());
+    }
+
+    private static long version(String eTag) {
+        return Long.parseLong(eTag.replace("\"", ""));
+    }
+}
@@ -0,0 +1,7 @@
+package com.tam.taskmanager.controller;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "app.write-pipeline.enabled=true")
+class TaskCreatePipelineTest extends TaskCreateTest {
+}
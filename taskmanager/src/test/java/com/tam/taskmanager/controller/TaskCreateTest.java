@@ -0,0 +1,88 @@
+package com.tam.taskmanager.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.tam.taskmanager.support.IntegrationTest;
+
+/**
+ * POST /tasks validation and visibility; TaskCreatePipelineTest runs the
+ * same tests through the write pipeline.
+ */
+class TaskCreateTest extends IntegrationTest {
+
+    @Test
+    void createsTask() throws Exception {
+        String subject = newUser();
+        String title = "x".repeat(255);
+
+        long taskId = Long.parseLong(createTask(bearer(subject), title, "description", "low", "pending")
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        assertThat(jdbcTemplate.queryForObject("SELECT title FROM task WHERE id = ? AND assigned_user_id = ?",
+                String.class, taskId, userId(subject))).isEqualTo(title);
+    }
+
+    @Test
+    void createdTaskIsListedRightAway() throws Exception {
+        String token = bearer(newUser());
+        String eTag = mockMvc.perform(get(API + "/tasks").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String taskId = createTask(token, "Listed", "description", "LOW", "PENDING")
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String listed = mockMvc.perform(get(API + "/tasks")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(listed).contains("\"id\":" + taskId);
+    }
+
+    @Test
+    void overlongTitleOrDescriptionIsBadRequest() throws Exception {
+        String subject = newUser();
+        String token = bearer(subject);
+
+        createTask(token, "x".repeat(256), "description", "LOW", "PENDING").andExpect(status().isBadRequest());
+        createTask(token, "Task", "x".repeat(256), "LOW", "PENDING").andExpect(status().isBadRequest());
+
+        assertThat(taskCount(subject)).isZero();
+    }
+
+    @Test
+    void unknownPriorityOrStatusIsBadRequest() throws Exception {
+        String subject = newUser();
+        String token = bearer(subject);
+
+        createTask(token, "Task", "description", "URGENT", "PENDING").andExpect(status().isBadRequest());
+        createTask(token, "Task", "description", "LOW", "DONE").andExpect(status().isBadRequest());
+
+        assertThat(taskCount(subject)).isZero();
+    }
+
+    private long taskCount(String subject) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM task WHERE assigned_user_id = ?", Long.class,
+                userId(subject));
+    }
+
+    private ResultActions createTask(String token, String title, String description, String priority,
+            String status) throws Exception {
+        return mockMvc.perform(post(API + "/tasks")
+                .param("title", title)
+                .param("description", description)
+                .param("priority", priority)
+                .param("status", status)
+                .header(HttpHeaders.AUTHORIZATION, token));
+    }
+}
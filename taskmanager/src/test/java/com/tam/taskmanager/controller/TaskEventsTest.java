@@ -0,0 +1,115 @@
+package com.tam.taskmanager.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.tam.taskmanager.support.IntegrationTest;
+
+/**
+ * GET /tasks/events: replay after Last-Event-ID followed by live events.
+ */
+class TaskEventsTest extends IntegrationTest {
+
+    // Complete events only: the stream is read while events are being written
+    private static final Pattern EVENT = Pattern.compile("id:(\\d+)\\nevent:(\\w+)\\ndata:[^\\n]*\\n\\n");
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    void resumesAfterLastEventIdWithoutGapToLiveEvents() throws Exception {
+        String subject = newUser();
+        String token = bearer(subject);
+        long first = createTask(token, "First");
+        long second = createTask(token, "Second");
+        List<Long> eventIds = jdbcTemplate.queryForList(
+                "SELECT id FROM task_event WHERE user_id = ? ORDER BY id", Long.class, userId(subject));
+        assertThat(eventIds).hasSize(2);
+
+        MvcResult stream = mockMvc.perform(get(API + "/tasks/events")
+                .header("Last-Event-ID", eventIds.get(0))
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        List<String> replayed = awaitEvents(stream, events -> events.size() >= 1);
+        assertThat(replayed).containsExactly(eventIds.get(1) + " CREATED");
+        assertThat(stream.getResponse().getContentAsString()).contains("\"taskId\":" + second)
+                .doesNotContain("\"taskId\":" + first);
+
+        mockMvc.perform(patch(API + "/tasks")
+                .param("taskId", Long.toString(first))
+                .param("status", "COMPLETED")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+
+        List<String> events = awaitEvents(stream, received -> received.size() >= 2);
+        assertThat(events).hasSize(2);
+        assertThat(events.get(1)).endsWith(" UPDATED");
+        assertThat(eventId(events.get(1))).isGreaterThan(eventIds.get(1));
+    }
+
+    @Test
+    void newSubscriberOnlyGetsLiveEvents() throws Exception {
+        String token = bearer(newUser());
+        createTask(token, "Before");
+
+        MvcResult stream = mockMvc.perform(get(API + "/tasks/events")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        long after = createTask(token, "After");
+
+        List<String> events = awaitEvents(stream, received -> !received.isEmpty());
+        assertThat(events).hasSize(1).allMatch(event -> event.endsWith(" CREATED"));
+        assertThat(stream.getResponse().getContentAsString()).contains("\"taskId\":" + after);
+    }
+
+    /**
+     * "id type" of each event received so far, once the condition holds.
+     */
+    private static List<String> awaitEvents(MvcResult stream, Predicate<List<String>> condition)
+            throws Exception {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (true) {
+            List<String> events = new ArrayList<>();
+            Matcher matcher = EVENT.matcher(stream.getResponse().getContentAsString());
+            while (matcher.find()) {
+                events.add(matcher.group(1) + " " + matcher.group(2));
+            }
+            if (condition.test(events) || System.nanoTime() > deadline) {
+                return events;
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private static long eventId(String event) {
+        return Long.parseLong(event.substring(0, event.indexOf(' ')));
+    }
+
+    private long createTask(String token, String title) throws Exception {
+        MvcResult result = mockMvc.perform(post(API + "/tasks")
+                .param("title", title)
+                .param("description", "description")
+                .param("priority", "LOW")
+                .param("status", "PENDING")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn();
+        return Long.parseLong(result.getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,141 @@
+package com.tam.taskmanager.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tam.taskmanager.support.IntegrationTest;
+
+class TaskPaginationTest extends IntegrationTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void cursorPagesThroughAllTasksNewestFirst() throws Exception {
+        String token = bearer(newUser());
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(createTask(token, "Task " + i));
+        }
+
+        List<Long> listed = new ArrayList<>();
+        String cursor = "";
+        int slices = 0;
+        while (cursor != null) {
+            MvcResult result = mockMvc.perform(get(API + "/tasks")
+                    .param("cursor", cursor)
+                    .param("pageSize", "2")
+                    .header(HttpHeaders.AUTHORIZATION, token))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            for (JsonNode task : objectMapper.readTree(result.getResponse().getContentAsString())) {
+                listed.add(task.get("id").asLong());
+            }
+            cursor = result.getResponse().getHeader(TaskManagerController.NEXT_CURSOR_HEADER);
+            slices++;
+        }
+
+        assertThat(slices).isEqualTo(3);
+        assertThat(listed).containsExactlyElementsOf(created.reversed());
+    }
+
+    @Test
+    void cursorSurvivesInsertsBetweenSlices() throws Exception {
+        String token = bearer(newUser());
+        for (int i = 0; i < 4; i++) {
+            createTask(token, "Task " + i);
+        }
+        MvcResult first = mockMvc.perform(get(API + "/tasks")
+                .param("cursor", "")
+                .param("pageSize", "2")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn();
+        String cursor = first.getResponse().getHeader(TaskManagerController.NEXT_CURSOR_HEADER);
+        List<Long> firstIds = ids(first);
+
+        // Unlike an offset, the cursor does not shift when newer tasks are added
+        createTask(token, "Newer task");
+        MvcResult second = mockMvc.perform(get(API + "/tasks")
+                .param("cursor", cursor)
+                .param("pageSize", "2")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(ids(second)).hasSize(2).doesNotContainAnyElementsOf(firstIds);
+        assertThat(second.getResponse().getHeader(TaskManagerController.NEXT_CURSOR_HEADER)).isNull();
+    }
+
+    @Test
+    void searchCursorPagesByRank() throws Exception {
+        String token = bearer(newUser());
+        for (int i = 0; i < 3; i++) {
+            createTask(token, "Quarterly report " + i);
+        }
+        createTask(token, "Unrelated");
+
+        List<Long> listed = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null) {
+            MvcResult result = mockMvc.perform(get(API + "/tasks/search")
+                    .param("search", "report")
+                    .param("cursor", cursor)
+                    .param("pageSize", "2")
+                    .header(HttpHeaders.AUTHORIZATION, token))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            listed.addAll(ids(result));
+            cursor = result.getResponse().getHeader(TaskManagerController.NEXT_CURSOR_HEADER);
+        }
+
+        assertThat(listed).hasSize(3).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void tasksOfOtherUsersAreNotListed() throws Exception {
+        String token = bearer(newUser());
+        createTask(token, "Mine");
+        String otherToken = bearer(newUser());
+
+        MvcResult result = mockMvc.perform(get(API + "/tasks")
+                .param("cursor", "")
+                .header(HttpHeaders.AUTHORIZATION, otherToken))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(ids(result)).isEmpty();
+    }
+
+    private long createTask(String token, String title) throws Exception {
+        MvcResult result = mockMvc.perform(post(API + "/tasks")
+                .param("title", title)
+                .param("description", "description of " + title)
+                .param("priority", "LOW")
+                .param("status", "PENDING")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn();
+        return Long.parseLong(result.getResponse().getContentAsString());
+    }
+
+    private List<Long> ids(MvcResult result) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode task : objectMapper.readTree(result.getResponse().getContentAsString())) {
+            ids.add(task.get("id").asLong());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,72 @@
+package com.tam.taskmanager.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tam.taskmanager.support.IntegrationTest;
+
+class TaskSearchTest extends IntegrationTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void fullTextSearchMatchesWordsSubstringsAndTypos() throws Exception {
+        String token = bearer(newUser());
+        long report = createTask(token, "Quarterly report", "numbers for the board");
+        long invoice = createTask(token, "Send invoices", "to the customer");
+        createTask(token, "Unrelated", "nothing to see");
+
+        assertThat(search(token, "report")).containsExactly(report);
+        assertThat(search(token, "invoic")).containsExactly(invoice);
+        assertThat(search(token, "quartely")).containsExactly(report);
+    }
+
+    @Test
+    void blankSearchListsOnlyTheCallersTasks() throws Exception {
+        String token = bearer(newUser());
+        long mine = createTask(token, "Mine", "description");
+        createTask(bearer(newUser()), "Someone else's", "description");
+
+        assertThat(search(token, "")).containsExactly(mine);
+        assertThat(search(token, "  ")).containsExactly(mine);
+    }
+
+    private List<Long> search(String token, String search) throws Exception {
+        MvcResult result = mockMvc.perform(get(API + "/tasks/search")
+                .param("search", search)
+                .param("pageSize", "50")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode task : objectMapper.readTree(result.getResponse().getContentAsString())) {
+            ids.add(task.get("id").asLong());
+        }
+        return ids;
+    }
+
+    private long createTask(String token, String title, String description) throws Exception {
+        MvcResult result = mockMvc.perform(post(API + "/tasks")
+                .param("title", title)
+                .param("description", description)
+                .param("priority", "LOW")
+                .param("status", "PENDING")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn();
+        return Long.parseLong(result.getResponse().getContentAsString());
+    }
+}
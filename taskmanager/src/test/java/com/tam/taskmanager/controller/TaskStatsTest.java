@@ -0,0 +1,169 @@
+package com.tam.taskmanager.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.tam.taskmanager.repository.TaskStatsRepository;
+import com.tam.taskmanager.service.TaskStatsService;
+import com.tam.taskmanager.support.IntegrationTest;
+
+/**
+ * task_stats counters maintained by the triggers of 08.create_task_stats.sql
+ * and their reconciliation.
+ */
+class TaskStatsTest extends IntegrationTest {
+
+    // Written outside the application, in a transaction the test controls
+    private static final String INSERT_TASK = "INSERT INTO task (title, description, priority, status,"
+            + " assigned_user_id) VALUES ('Task', 'description', 'LOW', 'PENDING', ?)";
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskStatsRepository taskStatsRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void countersFollowCreatesUpdatesAndDeletes() throws Exception {
+        String token = bearer(newUser());
+        createTask(token, "LOW", "PENDING");
+        long moved = createTask(token, "HIGH", "PENDING");
+        long deleted = createTask(token, "HIGH", "COMPLETED");
+        createTask(token, "MEDIUM", "COMPLETED");
+
+        mockMvc.perform(patch(API + "/tasks")
+                .param("taskId", Long.toString(moved))
+                .param("status", "COMPLETED")
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete(API + "/tasks")
+                .param("taskId", Long.toString(deleted))
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(API + "/tasks/stats").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byStatus.PENDING").value(1))
+                .andExpect(jsonPath("$.byStatus.COMPLETED").value(2))
+                .andExpect(jsonPath("$.byStatus.IN_PROGRESS").value(0))
+                .andExpect(jsonPath("$.byPriority.HIGH").value(1))
+                .andExpect(jsonPath("$.counts.COMPLETED.HIGH").value(1))
+                .andExpect(jsonPath("$.counts.COMPLETED.MEDIUM").value(1))
+                .andExpect(jsonPath("$.counts.PENDING.LOW").value(1));
+    }
+
+    @Test
+    void reconciliationRecountsDriftedCounters() throws Exception {
+        String subject = newUser();
+        String token = bearer(subject);
+        createTask(token, "LOW", "PENDING");
+        createTask(token, "LOW", "PENDING");
+        long userId = userId(subject);
+        // As if written with the triggers disabled
+        jdbcTemplate.update("UPDATE task_stats SET task_count = 7 WHERE user_id = ?", userId);
+        jdbcTemplate.update("INSERT INTO task_stats (user_id, status, priority, task_count)"
+                + " VALUES (?, 'COMPLETED', 'HIGH', 3)", userId);
+
+        // Each run compares the next batch of users; a few runs cover every test user
+        for (int run = 0; run < 3 && taskCount(userId) != 2; run++) {
+            taskStatsService.reconcile();
+        }
+
+        assertThat(taskCount(userId)).isEqualTo(2);
+        mockMvc.perform(get(API + "/tasks/stats").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.counts.PENDING.LOW").value(2))
+                .andExpect(jsonPath("$.counts.COMPLETED.HIGH").value(0));
+    }
+
+    @Test
+    void recountDoesNotWaitForWritesOfOtherUsers() throws Exception {
+        String writer = newUser();
+        String recounted = newUser();
+        createTask(bearer(writer), "LOW", "PENDING");
+        createTask(bearer(recounted), "LOW", "PENDING");
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            // Uncommitted write: holds the writer's lock and row locks on its counters
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_TASK)) {
+                insert.setLong(1, userId(writer));
+                insert.executeUpdate();
+            }
+            try {
+                int rows = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                        () -> taskStatsRepository.recount(List.of(userId(recounted))));
+                assertThat(rows).isEqualTo(1);
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+
+    @Test
+    void recountWaitsForUncommittedWritesOfTheUser() throws Exception {
+        String writer = newUser();
+        createTask(bearer(writer), "LOW", "PENDING");
+        long writerId = userId(writer);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(INSERT_TASK)) {
+                insert.setLong(1, writerId);
+                insert.executeUpdate();
+            }
+            CompletableFuture<Integer> recount = CompletableFuture
+                    .supplyAsync(() -> taskStatsRepository.recount(List.of(writerId)));
+            try {
+                Thread.sleep(500);
+                assertThat(recount).isNotDone();
+            } finally {
+                connection.commit();
+            }
+            recount.get(10, TimeUnit.SECONDS);
+        }
+
+        assertThat(taskCount(writerId)).isEqualTo(2);
+    }
+
+    private long taskCount(long userId) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(sum(task_count), 0) FROM task_stats WHERE user_id = ?",
+                Long.class, userId);
+    }
+
+    private long createTask(String token, String priority, String status) throws Exception {
+        MvcResult result = mockMvc.perform(post(API + "/tasks")
+                .param("title", "Task")
+                .param("description", "description")
+                .param("priority", priority)
+                .param("status", status)
+                .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn();
+        return Long.parseLong(result.getResponse().getContentAsString());
+    }
+}
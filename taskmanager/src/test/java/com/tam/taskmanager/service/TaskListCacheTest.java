@@ -0,0 +1,87 @@
+package com.tam.taskmanager.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.tam.taskmanager.dto.task.TaskDTO;
+import com.tam.taskmanager.enums.PriorityEnum;
+import com.tam.taskmanager.enums.StatusEnum;
+import com.tam.taskmanager.service.TaskListCache.Page;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TaskListCacheTest {
+
+    private static final Long USER = 1L;
+
+    private final TaskListCache cache = new TaskListCache(100, 10, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    @Test
+    void pageKeepsTheVersionItWasReadAt() {
+        Page loaded = cache.get(USER, "first", () -> 5, () -> tasks("A"));
+        Page cached = cache.get(USER, "first", () -> 6, () -> tasks("B"));
+
+        assertThat(loaded.version()).isEqualTo(5);
+        assertThat(cached).isEqualTo(loaded);
+        assertThat(cache.getVersion(USER, () -> 6)).isEqualTo(5);
+    }
+
+    @Test
+    void versionIsReadBeforeTheTasks() {
+        List<String> reads = new ArrayList<>();
+
+        cache.get(USER, "first", () -> {
+            reads.add("version");
+            return 5;
+        }, () -> {
+            reads.add("tasks");
+            return tasks("A");
+        });
+
+        assertThat(reads).containsExactly("version", "tasks");
+    }
+
+    @Test
+    void pageReadAtAnOlderVersionIsServedButNotCached() {
+        cache.get(USER, "first", () -> 6, () -> tasks("New"));
+
+        // A lagging replica: its version and rows belong together, and are older than what is cached
+        Page lagging = cache.get(USER, "second", () -> 5, () -> tasks("Old"));
+        assertThat(lagging.version()).isEqualTo(5);
+
+        Page reloaded = cache.get(USER, "second", () -> 6, () -> tasks("New"));
+        assertThat(reloaded.version()).isEqualTo(6);
+        assertThat(reloaded.tasks()).extracting(TaskDTO::getTitle).containsExactly("New");
+    }
+
+    @Test
+    void pageReadAtANewerVersionDropsTheOlderPages() {
+        cache.get(USER, "first", () -> 5, () -> tasks("Old"));
+        cache.get(USER, "second", () -> 6, () -> tasks("New"));
+
+        assertThat(cache.getVersion(USER, () -> 0)).isEqualTo(6);
+        Page first = cache.get(USER, "first", () -> 6, () -> tasks("Reloaded"));
+        assertThat(first.version()).isEqualTo(6);
+        assertThat(first.tasks()).extracting(TaskDTO::getTitle).containsExactly("Reloaded");
+    }
+
+    @Test
+    void evictionForgetsPagesAndVersion() {
+        cache.get(USER, "first", () -> 5, () -> tasks("Old"));
+
+        cache.evict(USER);
+
+        assertThat(cache.getVersion(USER, () -> 7)).isEqualTo(7);
+        assertThat(cache.get(USER, "first", () -> 7, () -> tasks("New")).tasks())
+                .extracting(TaskDTO::getTitle).containsExactly("New");
+    }
+
+    private static List<TaskDTO> tasks(String title) {
+        return List.of(new TaskDTO(1L, title, "description", PriorityEnum.LOW, StatusEnum.PENDING));
+    }
+}
@@ -0,0 +1,98 @@
+package com.tam.taskmanager.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Base of the tests that need the whole application: one embedded Postgres
+ * per test JVM, migrated by the Liquibase changelog at context start (so the
+ * triggers, task_event NOTIFY and partitioning are the real ones), and a
+ * LocalJwtIssuer whose keys are written to the JWK snapshot. All subclasses
+ * share one Spring context; each test works as its own user (newUser), so
+ * tests do not see each other's tasks.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public abstract class IntegrationTest {
+
+    public static final String API = "/api/v1";
+
+    protected static final EmbeddedPostgres POSTGRES = startPostgres();
+    protected static final LocalJwtIssuer JWT_ISSUER = new LocalJwtIssuer(
+            "http://localhost:8080/realms/task-maneger-realm");
+    private static final Path JWK_SNAPSHOT = writeJwkSnapshot();
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void databaseAndJwtProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("app.jwks.snapshot-path", JWK_SNAPSHOT::toString);
+        // Never fetched while the snapshot has the key
+        registry.add("spring.security.oauth2.resourceserver.jwt.jwk-set-uri",
+                () -> "http://localhost:1/realms/task-maneger-realm/protocol/openid-connect/certs");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("logging.file.name", () -> "");
+        registry.add("app.stats.reconcile-initial-delay", () -> "1d");
+    }
+
+    /**
+     * Keycloak subject of a user no other test uses; the task_user row is
+     * created by the first request.
+     */
+    protected static String newUser() {
+        return "test-" + UUID.randomUUID();
+    }
+
+    /**
+     * Authorization header value for a user with the manage_task realm role.
+     */
+    protected static String bearer(String subject) {
+        return "Bearer " + JWT_ISSUER.issue(subject, List.of("manage_task"), Duration.ofMinutes(5));
+    }
+
+    protected long userId(String subject) {
+        return jdbcTemplate.queryForObject("SELECT id FROM task_user WHERE keycloak_user_id = ?", Long.class,
+                subject);
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded Postgres", e);
+        }
+    }
+
+    private static Path writeJwkSnapshot() {
+        try {
+            Path snapshot = Files.createTempFile("taskmanager-test-jwks", ".json");
+            snapshot.toFile().deleteOnExit();
+            JWT_ISSUER.writeJwkSet(snapshot);
+            return snapshot;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write JWK snapshot", e);
+        }
+    }
+}
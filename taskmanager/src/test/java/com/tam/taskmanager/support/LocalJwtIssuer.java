@@ -0,0 +1,98 @@
+package com.tam.taskmanager.support;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+/**
+ * Stand-in for Keycloak in tests: signs RS256 access tokens shaped like the
+ * realm's (sub, preferred_username, scope, realm_access.roles) with an
+ * in-memory key.
+ * Point the application at it by writing its key set to the JWK snapshot
+ * (app.jwks.snapshot-path) and using the same issuer-uri; no Keycloak or
+ * network access is needed.
+ *
+ * LocalJwtIssuer issuer = new LocalJwtIssuer("http://localhost:8080/realms/task-maneger-realm");
+ * issuer.writeJwkSet(snapshotPath);
+ * String token = issuer.issue("user-1", List.of("manage_task"), Duration.ofMinutes(5));
+ */
+public class LocalJwtIssuer {
+
+    private final String issuer;
+    private final RSAKey signingKey;
+
+    public LocalJwtIssuer(String issuer) {
+        this.issuer = issuer;
+        try {
+            this.signingKey = new RSAKeyGenerator(2048)
+                    .keyID("local-" + UUID.randomUUID())
+                    .algorithm(JWSAlgorithm.RS256)
+                    .generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not generate signing key", e);
+        }
+    }
+
+    public String issue(String subject, List<String> realmRoles, Duration timeToLive) {
+        Instant now = Instant.now();
+        return sign(new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(subject)
+                .jwtID(UUID.randomUUID().toString())
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(timeToLive)))
+                .claim("preferred_username", subject)
+                .claim("scope", "openid profile email")
+                .claim("realm_access", Map.of("roles", realmRoles))
+                .build());
+    }
+
+    /**
+     * Signs arbitrary claims, e.g. to test tokens without realm_access.
+     */
+    public String sign(JWTClaimsSet claims) {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .keyID(signingKey.getKeyID())
+                .type(JOSEObjectType.JWT)
+                .build(), claims);
+        try {
+            jwt.sign(new RSASSASigner(signingKey));
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not sign token", e);
+        }
+        return jwt.serialize();
+    }
+
+    /**
+     * Public key set in the format served by Keycloak's certs endpoint.
+     */
+    public String jwkSetJson() {
+        return new JWKSet(signingKey.toPublicJWK()).toString();
+    }
+
+    public void writeJwkSet(Path path) throws IOException {
+        Files.writeString(path, jwkSetJson(), StandardCharsets.UTF_8);
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+}